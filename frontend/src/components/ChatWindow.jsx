@@ -63,7 +63,7 @@ const Message = memo(({ msg, idx, isLastMessage, onConfirm, onContentChange }) =
 
 Message.displayName = 'Message';
 
-const ChatWindow = memo(({ conversation, loading, onConfirm, onContentChange }) => {
+const ChatWindow = memo(({ conversation, loading, streamingText, onConfirm, onContentChange }) => {
     const validateConversation = useCallback((conv) => {
         if (!Array.isArray(conv)) {
             console.error("ChatWindow expected conversation to be an array, got:", conv);
@@ -91,7 +91,10 @@ const ChatWindow = memo(({ conversation, loading, onConfirm, onContentChange })
                             onContentChange={onContentChange}
                         />
                     ))}
-                    {loading && (
+                    {loading && streamingText && (
+                        <MessageBubble message={{ response: streamingText }} />
+                    )}
+                    {loading && !streamingText && (
                         <div className="pt-2 flex justify-center">
                             <LoadingIndicator />
                         </div>
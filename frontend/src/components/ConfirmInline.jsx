@@ -29,42 +29,85 @@ const SpinnerIcon = ({ className }) => (
   </svg>
 );
 
-const ConfirmInline = memo(({ data, confirmed, onConfirm }) => {
-  const { args = {}, tool } = data || {};
+// A decision carries either one call in tool/args or several independent calls in tools.
+export const toolCalls = (data) => {
+  if (Array.isArray(data?.tools) && data.tools.length > 0) {
+    return data.tools.filter((call) => call?.tool);
+  }
+  return data?.tool ? [{ tool: data.tool, args: data.args }] : [];
+};
+
+const RenderValue = ({ value }) => {
+  if (value === null || value === undefined) return <span className="italic">-</span>;
+
+  if (Array.isArray(value)) {
+    return (
+      <ol className="pl-4 list-decimal space-y-0.5">
+        {value.map((v, i) => (
+          <li key={i} className="flex gap-1">
+            <RenderValue value={v} />
+          </li>
+        ))}
+      </ol>
+    );
+  }
+
+  if (typeof value === "object") {
+    return (
+      <ul className="pl-4 space-y-0.5 list-disc marker:text-green-500 dark:marker:text-green-400">
+        {Object.entries(value).map(([k, v]) => (
+          <li key={k} className="flex gap-1">
+            <span className="capitalize text-gray-600 dark:text-gray-300">{k}:&nbsp;</span>
+            <RenderValue value={v} />
+          </li>
+        ))}
+      </ul>
+    );
+  }
+
+  return <span className="font-medium text-gray-800 dark:text-gray-100">{String(value)}</span>;
+};
+
+const ToolArgs = ({ args }) => {
   const [showAll, setShowAll] = useState(false);
-  const argEntries = Object.entries(args);
+  const argEntries = Object.entries(args || {});
   const shouldCollapse = argEntries.length > 4 && !showAll;
 
-  const RenderValue = ({ value }) => {
-    if (value === null || value === undefined) return <span className="italic">-</span>;
-
-    if (Array.isArray(value)) {
-      return (
-        <ol className="pl-4 list-decimal space-y-0.5">
-          {value.map((v, i) => (
-            <li key={i} className="flex gap-1">
-              <RenderValue value={v} />
-            </li>
-          ))}
-        </ol>
-      );
-    }
-
-    if (typeof value === "object") {
-      return (
-        <ul className="pl-4 space-y-0.5 list-disc marker:text-green-500 dark:marker:text-green-400">
-          {Object.entries(value).map(([k, v]) => (
-            <li key={k} className="flex gap-1">
-              <span className="capitalize text-gray-600 dark:text-gray-300">{k}:&nbsp;</span>
-              <RenderValue value={v} />
-            </li>
-          ))}
-        </ul>
-      );
-    }
-
-    return <span className="font-medium text-gray-800 dark:text-gray-100">{String(value)}</span>;
-  };
+  if (argEntries.length === 0) return null;
+
+  return (
+    <div className="text-sm text-gray-700 dark:text-gray-300">
+      {argEntries
+        .slice(0, shouldCollapse ? 4 : argEntries.length)
+        .map(([k, v]) => (
+          <div key={k} className="flex gap-1">
+            <span className="capitalize">{k}:&nbsp;</span>
+            <RenderValue value={v} />
+          </div>
+        ))}
+      {shouldCollapse && (
+        <button
+          onClick={() => setShowAll(true)}
+          className="mt-1 text-green-600 dark:text-green-400 text-xs underline hover:no-underline"
+        >
+          …show all
+        </button>
+      )}
+      {showAll && argEntries.length > 4 && (
+        <button
+          onClick={() => setShowAll(false)}
+          className="mt-1 block text-green-600 dark:text-green-400 text-xs underline hover:no-underline"
+        >
+          show less
+        </button>
+      )}
+    </div>
+  );
+};
+
+const ConfirmInline = memo(({ data, confirmed, onConfirm }) => {
+  const calls = toolCalls(data);
+  const toolNames = calls.map((call) => call.tool).join(", ") || "Unknown";
 
   const cardBase =
     "mt-2 p-3 rounded-lg border-l-4 border-green-500 bg-gray-100/60 dark:bg-gray-800/60 shadow-sm";
@@ -74,7 +117,7 @@ const ConfirmInline = memo(({ data, confirmed, onConfirm }) => {
       <div className={`${cardBase} flex items-center gap-3`} role="status">
         <SpinnerIcon className="text-green-600 dark:text-green-400 w-4 h-4" />
         <span className="text-sm text-gray-700 dark:text-gray-200">
-          Running <strong className="font-semibold">{tool ?? "Unknown"}</strong> …
+          Running <strong className="font-semibold">{toolNames}</strong> …
         </span>
       </div>
     );
@@ -85,45 +128,27 @@ const ConfirmInline = memo(({ data, confirmed, onConfirm }) => {
       <div className="flex items-center gap-2">
         <PlayIcon className="text-green-600 dark:text-green-400 w-5 h-5 shrink-0" />
         <p className="text-sm font-medium text-gray-700 dark:text-gray-200">
-          Ready to run <strong>{tool ?? "Unknown"}</strong>
+          {calls.length > 1
+            ? <>Ready to run <strong>{calls.length} tool calls</strong> together</>
+            : <>Ready to run <strong>{toolNames}</strong></>}
         </p>
       </div>
 
-      {argEntries.length > 0 && (
-        <div className="text-sm text-gray-700 dark:text-gray-300">
-          {argEntries
-            .slice(0, shouldCollapse ? 4 : argEntries.length)
-            .map(([k, v]) => (
-              <div key={k} className="flex gap-1">
-                <span className="capitalize">{k}:&nbsp;</span>
-                <RenderValue value={v} />
-              </div>
-            ))}
-          {shouldCollapse && (
-            <button
-              onClick={() => setShowAll(true)}
-              className="mt-1 text-green-600 dark:text-green-400 text-xs underline hover:no-underline"
-            >
-              …show all
-            </button>
-          )}
-          {showAll && argEntries.length > 4 && (
-            <button
-              onClick={() => setShowAll(false)}
-              className="mt-1 block text-green-600 dark:text-green-400 text-xs underline hover:no-underline"
-            >
-              show less
-            </button>
+      {calls.map((call, i) => (
+        <div key={i} className="space-y-1">
+          {calls.length > 1 && (
+            <p className="text-sm font-semibold text-gray-700 dark:text-gray-200">{call.tool}</p>
           )}
+          <ToolArgs args={call.args} />
         </div>
-      )}
+      ))}
 
       <div className="text-right">
         <button
           onClick={onConfirm}
           onKeyDown={(e) => (e.key === "Enter" || e.key === " ") && onConfirm()}
           className="w-full sm:w-auto bg-green-600 hover:bg-green-700 text-white text-sm px-3 py-1.5 rounded-md shadow-sm transition-colors focus:outline-none focus:ring-2 focus:ring-green-500 focus:ring-offset-1 animate-pulse sm:animate-none"
-          aria-label={`Confirm running ${tool}`}
+          aria-label={`Confirm running ${toolNames}`}
         >
           Confirm
         </button>
@@ -1,6 +1,6 @@
 import React, { memo, useEffect, useState, useRef } from "react";
 import MessageBubble from "./MessageBubble";
-import ConfirmInline from "./ConfirmInline";
+import ConfirmInline, { toolCalls } from "./ConfirmInline";
 
 const LLMResponse = memo(({ data, onConfirm, isLastMessage, onHeightChange }) => {
     const [isConfirmed, setIsConfirmed] = useState(false);
@@ -28,9 +28,11 @@ const LLMResponse = memo(({ data, onConfirm, isLastMessage, onHeightChange }) =>
         : data?.response;
 
     const displayText = (response || '').trim();
+    const calls = toolCalls(data);
+    const toolNames = calls.map((call) => call.tool).join('", "');
     const requiresConfirm = data?.force_confirm && data?.next === "confirm" && isLastMessage;
     const defaultText = requiresConfirm
-        ? `Agent is ready to run "${data?.tool}". Please confirm.`
+        ? `Agent is ready to run "${toolNames}". Please confirm.`
         : '';
 
     return (
@@ -45,10 +47,11 @@ const LLMResponse = memo(({ data, onConfirm, isLastMessage, onHeightChange }) =>
                     onConfirm={handleConfirm}
                 />
             )}
-            {!requiresConfirm && data?.tool && data?.next === "confirm" && (
+            {!requiresConfirm && calls.length > 0 && data?.next === "confirm" && (
                 <div className="text-sm text-center text-green-600 dark:text-green-400">
                     <div>
-                        Agent chose tool: <strong>{data.tool ?? "Unknown"}</strong>
+                        Agent chose {calls.length > 1 ? "tools" : "tool"}:{" "}
+                        <strong>{calls.map((call) => call.tool).join(", ")}</strong>
                     </div>
                 </div>
             )}
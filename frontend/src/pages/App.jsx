@@ -32,6 +32,7 @@ export default function App() {
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState(INITIAL_ERROR_STATE);
     const [done, setDone] = useState(false);
+    const [streamingText, setStreamingText] = useState(null);
     const errorTimerRef = useRef(null);
 
     const startNewWorkflow = useCallback(async ({ goalId, force = false } = {}) => {
@@ -127,6 +128,10 @@ export default function App() {
                 const isAgentMessage = actor === "agent";
 
                 setLoading(!isAgentMessage);
+                if (isAgentMessage) {
+                    // The recorded reply replaces whatever was streamed for it.
+                    setStreamingText(null);
+                }
                 const rawResponse = lastMsg?.response;
                 const nextValue = rawResponse && typeof rawResponse === 'object'
                     ? rawResponse.next
@@ -168,6 +173,17 @@ export default function App() {
         return () => clearInterval(pollingRef.current);
     }, [fetchConversationHistory]);
 
+    useEffect(() => {
+        setStreamingText(null);
+        if (!workflowId) {
+            return undefined;
+        }
+        return apiService.subscribeToResponses(workflowId, {
+            onStart: () => setStreamingText(""),
+            onDelta: (text) => setStreamingText((prev) => (prev ?? "") + text),
+        });
+    }, [workflowId]);
+
     const scrollToBottom = useCallback(() => {
         if (containerRef.current) {
             if (scrollTimeoutRef.current) {
@@ -192,6 +208,12 @@ export default function App() {
         }
     }, [lastMessage, scrollToBottom]);
 
+    useEffect(() => {
+        if (streamingText) {
+            scrollToBottom();
+        }
+    }, [streamingText, scrollToBottom]);
+
     useEffect(() => {
         if (inputRef.current && !loading && !done) {
             inputRef.current.focus();
@@ -294,6 +316,7 @@ export default function App() {
                         <ChatWindow
                             conversation={conversation}
                             loading={loading}
+                            streamingText={streamingText}
                             onConfirm={handleConfirm}
                             onContentChange={handleContentChange}
                         />
@@ -186,6 +186,25 @@ export const apiService = {
         }
     },
 
+    /**
+     * Subscribes to the partial response text of the turn in flight. Returns a function that closes the stream.
+     * Streaming is best effort: the polled history stays the source of truth.
+     */
+    subscribeToResponses(workflowId, { onStart, onDelta, onEnd } = {}) {
+        if (!workflowId || typeof EventSource === 'undefined') {
+            return () => {};
+        }
+        const source = new EventSource(`${AGENT_API}/${encodeURIComponent(workflowId)}/stream`);
+        source.addEventListener('start', () => onStart?.());
+        source.addEventListener('delta', (event) => onDelta?.(event.data));
+        source.addEventListener('end', () => onEnd?.());
+        source.onerror = () => {
+            // EventSource reconnects on its own; a missed delta only means the text appears when history is polled.
+            console.warn('Response stream interrupted for workflow', workflowId);
+        };
+        return () => source.close();
+    },
+
     async listTemplates(searchTerm) {
         const params = new URLSearchParams();
         if (searchTerm) {
@@ -2,12 +2,15 @@ package io.temporal.agent;
 
 import io.temporal.agent.config.PandadocProperties;
 import io.temporal.agent.config.TemporalProperties;
+import io.temporal.agent.llm.LlmStreamingProperties;
+import io.temporal.agent.payload.ClaimCheckProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties({TemporalProperties.class, PandadocProperties.class})
+@EnableConfigurationProperties({TemporalProperties.class, PandadocProperties.class, LlmStreamingProperties.class,
+        ClaimCheckProperties.class})
 public class TemporalAgentsApplication {
 
     public static void main(String[] args) {
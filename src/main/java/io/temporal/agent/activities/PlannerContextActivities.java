@@ -0,0 +1,20 @@
+package io.temporal.agent.activities;
+
+import io.temporal.activity.ActivityInterface;
+import io.temporal.agent.model.workflow.ContextTurn;
+import java.util.Map;
+
+/**
+ * Planner activities for conversations pinned to one worker. {@link #hostTaskQueue()} runs on the shared task queue
+ * and tells the workflow which queue reaches the worker that answered; planner turns are then sent there.
+ * {@link #releaseContext()} drops the cached context once the run has no further turns.
+ */
+@ActivityInterface
+public interface PlannerContextActivities {
+
+    String hostTaskQueue();
+
+    Map<String, Object> planWithCachedContext(ContextTurn turn);
+
+    void releaseContext();
+}
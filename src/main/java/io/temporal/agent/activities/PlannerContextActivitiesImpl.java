@@ -0,0 +1,44 @@
+package io.temporal.agent.activities;
+
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityInfo;
+import io.temporal.agent.model.workflow.ContextTurn;
+import io.temporal.agent.model.workflow.ToolPromptInput;
+import io.temporal.failure.ApplicationFailure;
+import java.util.Map;
+
+public class PlannerContextActivitiesImpl implements PlannerContextActivities {
+
+    private final String hostTaskQueue;
+    private final ToolActivities toolActivities;
+    private final PlannerContextCache cache;
+
+    public PlannerContextActivitiesImpl(String hostTaskQueue, ToolActivities toolActivities, PlannerContextCache cache) {
+        this.hostTaskQueue = hostTaskQueue;
+        this.toolActivities = toolActivities;
+        this.cache = cache;
+    }
+
+    @Override
+    public String hostTaskQueue() {
+        return hostTaskQueue;
+    }
+
+    @Override
+    public Map<String, Object> planWithCachedContext(ContextTurn turn) {
+        ActivityInfo info = Activity.getExecutionContext().getInfo();
+        String context = cache.render(info.getWorkflowId(), info.getRunId(), turn);
+        if (context == null) {
+            throw ApplicationFailure.newNonRetryableFailure(
+                    "No planner context for " + info.getWorkflowId() + " at message " + turn.getBaseSequence(),
+                    ContextTurn.CONTEXT_MISS);
+        }
+        return toolActivities.agentToolPlanner(
+                new ToolPromptInput(turn.getPrompt(), context, turn.getCallType(), turn.getGoalId()));
+    }
+
+    @Override
+    public void releaseContext() {
+        cache.invalidate(Activity.getExecutionContext().getInfo().getWorkflowId());
+    }
+}
@@ -0,0 +1,112 @@
+package io.temporal.agent.activities;
+
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.ConversationMessage;
+import io.temporal.agent.model.workflow.ContextTurn;
+import io.temporal.agent.prompt.AgentPromptGenerator;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-conversation planner context held by the worker the conversation is pinned to: the rendered goal context and
+ * the history, keyed by workflow id and checked against the run id and message sequence. Workflows release their
+ * entry when they complete or continue as new. Entries left behind by runs that never release them are dropped once
+ * unused for {@code maxIdle}, and least recently used conversations are dropped once {@code maxEntries} is reached;
+ * the workflow then resends the full context.
+ */
+public class PlannerContextCache {
+
+    private final Map<String, Entry> entries;
+    private final long maxIdleNanos;
+    private final LongSupplier nanoClock;
+
+    public PlannerContextCache(int maxEntries, Duration maxIdle) {
+        this(maxEntries, maxIdle, System::nanoTime);
+    }
+
+    PlannerContextCache(int maxEntries, Duration maxIdle, LongSupplier nanoClock) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Applies the turn to the cached context and returns the full planner prompt, or {@code null} when this worker
+     * does not hold the messages the turn builds on.
+     */
+    public String render(String workflowId, String runId, ContextTurn turn) {
+        Entry entry;
+        synchronized (entries) {
+            evictIdle(nanoClock.getAsLong());
+            entry = entries.get(workflowId);
+            if (entry == null || !entry.runId.equals(runId)) {
+                if (turn.getBaseSequence() != 0 || turn.getGoalContext() == null) {
+                    return null;
+                }
+                entry = new Entry(runId);
+                entries.put(workflowId, entry);
+            }
+            entry.lastUsedNanos = nanoClock.getAsLong();
+        }
+        synchronized (entry) {
+            List<ConversationMessage> messages = entry.history.getMessages();
+            if (messages.size() < turn.getBaseSequence()) {
+                return null;
+            }
+            if (turn.getGoalContext() != null) {
+                entry.goalContext = turn.getGoalContext();
+            }
+            if (entry.goalContext == null) {
+                return null;
+            }
+            // Messages before the base sequence never change, so a retried or abandoned turn is simply replaced.
+            messages.subList(turn.getBaseSequence(), messages.size()).clear();
+            messages.addAll(turn.getMessages());
+            return AgentPromptGenerator.assembleGenAiPrompt(entry.history, entry.goalContext, turn.isCorrection());
+        }
+    }
+
+    /**
+     * Drops the conversation's context, for example once its run has ended.
+     */
+    public void invalidate(String workflowId) {
+        synchronized (entries) {
+            entries.remove(workflowId);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Access order puts the least recently used entries first, so expired ones are always at the head.
+    private void evictIdle(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && now - iterator.next().lastUsedNanos > maxIdleNanos) {
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String runId;
+        private final ConversationHistory history = new ConversationHistory();
+        private String goalContext;
+        private long lastUsedNanos;
+
+        private Entry(String runId) {
+            this.runId = runId;
+        }
+    }
+}
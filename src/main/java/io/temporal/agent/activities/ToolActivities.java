@@ -1,6 +1,8 @@
 package io.temporal.agent.activities;
 
 import io.temporal.activity.ActivityInterface;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
 import io.temporal.agent.model.tools.McpServerDefinition;
 import io.temporal.agent.model.workflow.EnvLookupInput;
 import io.temporal.agent.model.workflow.EnvLookupOutput;
@@ -13,6 +15,12 @@ import java.util.Map;
 @ActivityInterface
 public interface ToolActivities {
 
+    /**
+     * Resolves a catalog reference to its goal, failing with a non-retryable {@link GoalReference#NOT_FOUND} if this
+     * worker does not have the version.
+     */
+    AgentGoal resolveGoal(GoalReference reference);
+
     ValidationResult agentValidatePrompt(ValidationInput input);
 
     Map<String, Object> agentToolPlanner(ToolPromptInput input);
@@ -1,51 +1,109 @@
 package io.temporal.agent.activities;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.m3.tally.Scope;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.agent.config.WorkflowEnvSettings;
+import io.temporal.agent.goals.GoalCatalog;
+import io.temporal.agent.json.AgentJson;
+import io.temporal.agent.llm.LlmStreamingProperties;
+import io.temporal.agent.llm.ModelRouter;
+import io.temporal.agent.llm.PartialResponseExtractor;
+import io.temporal.agent.llm.ProviderSessionNotFoundException;
+import io.temporal.agent.llm.ResponsesSessionClient;
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
 import io.temporal.agent.model.tools.McpServerDefinition;
 import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolError;
 import io.temporal.agent.model.workflow.EnvLookupInput;
 import io.temporal.agent.model.workflow.EnvLookupOutput;
+import io.temporal.agent.model.workflow.LlmCallType;
 import io.temporal.agent.model.workflow.ToolPromptInput;
 import io.temporal.agent.model.workflow.ValidationInput;
 import io.temporal.agent.model.workflow.ValidationResult;
+import io.temporal.agent.payload.ClaimCheck;
+import io.temporal.agent.service.ResponseStreamBroker;
+import io.temporal.agent.tools.ToolExecutionException;
 import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.client.ActivityCompletionException;
+import io.temporal.failure.ApplicationFailure;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClient.Builder;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ToolActivitiesImpl implements ToolActivities {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ToolActivitiesImpl.class);
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(1);
 
     private final ChatClient chatClient;
     private final ToolRegistry toolRegistry;
-    private final ObjectMapper objectMapper;
+    private final ModelRouter modelRouter;
+    private final ResponseStreamBroker responseStreamBroker;
+    private final LlmStreamingProperties streamingProperties;
+    private final GoalCatalog goalCatalog;
+    private final ClaimCheck claimCheck;
+    private final ResponsesSessionClient sessionClient;
+    private final ExecutorService llmExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    public ToolActivitiesImpl(Builder chatClientBuilder, ToolRegistry toolRegistry, ObjectMapper objectMapper) {
+    public ToolActivitiesImpl(Builder chatClientBuilder, ToolRegistry toolRegistry, ModelRouter modelRouter,
+                              ResponseStreamBroker responseStreamBroker, LlmStreamingProperties streamingProperties,
+                              GoalCatalog goalCatalog, ClaimCheck claimCheck,
+                              ObjectProvider<ResponsesSessionClient> sessionClient) {
         this.chatClient = chatClientBuilder.build();
         this.toolRegistry = toolRegistry;
-        this.objectMapper = objectMapper;
+        this.modelRouter = modelRouter;
+        this.responseStreamBroker = responseStreamBroker;
+        this.streamingProperties = streamingProperties;
+        this.goalCatalog = goalCatalog;
+        this.claimCheck = claimCheck;
+        this.sessionClient = sessionClient.getIfAvailable();
+    }
+
+    @Override
+    public AgentGoal resolveGoal(GoalReference reference) {
+        AgentGoal goal = goalCatalog.find(reference);
+        if (goal == null) {
+            throw goalNotFound(reference);
+        }
+        return goal;
     }
 
     @Override
     public ValidationResult agentValidatePrompt(ValidationInput input) {
         AgentGoal goal = input.getAgentGoal();
+        if (input.getGoalReference() != null) {
+            goal = goalCatalog.find(input.getGoalReference());
+            if (goal == null) {
+                throw goalNotFound(input.getGoalReference());
+            }
+        }
         if (goal == null) {
             LOGGER.debug("No agent goal provided for validation; accepting prompt as valid");
             return new ValidationResult(true, Collections.emptyMap());
@@ -66,8 +124,7 @@ public class ToolActivitiesImpl implements ToolActivities {
         }
         try {
             context.append("The conversation history to date is:\n");
-            context.append(objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(input.getConversationHistory()));
+            context.append(AgentJson.prettyWriter().writeValueAsString(claimCheck.resolveHistory(input.getConversationHistory())));
         } catch (JsonProcessingException e) {
             LOGGER.warn("Failed to serialize conversation history", e);
         }
@@ -79,7 +136,8 @@ public class ToolActivitiesImpl implements ToolActivities {
                 + "Return ONLY a JSON object with fields validationResult and validationFailedReason.\n"
                 + "If validationResult is false, validationFailedReason should be a JSON object with next='question' and response=<guidance>.";
 
-        Map<String, Object> response = agentToolPlanner(new ToolPromptInput(validationPrompt, context.toString()));
+        Map<String, Object> response = agentToolPlanner(
+                new ToolPromptInput(validationPrompt, context.toString(), LlmCallType.VALIDATION, goal.getId()));
         boolean result = Boolean.TRUE.equals(response.get("validationResult"));
         Map<String, Object> failureReason = extractMap(response.get("validationFailedReason"));
         return new ValidationResult(result, failureReason);
@@ -87,26 +145,101 @@ public class ToolActivitiesImpl implements ToolActivities {
 
     @Override
     public Map<String, Object> agentToolPlanner(ToolPromptInput input) {
+        String model = modelRouter.resolveModel(input.getCallType(), input.getGoalId());
+        if (input.isSessionTurn()) {
+            if (sessionClient != null) {
+                return planInSession(input, model);
+            }
+            if (input.getPreviousResponseId() != null) {
+                throw ApplicationFailure.newNonRetryableFailure(
+                        "Provider sessions are not configured on this worker", ToolPromptInput.SESSION_NOT_FOUND);
+            }
+        }
+        // Tool results kept in the blob store are only needed here, in the text the model reads.
+        String instructions = input.isSessionTurn()
+                ? input.getContextInstructions() + "\n" + sessionHistory(input)
+                : input.getContextInstructions();
         Prompt prompt = new Prompt(
-                new SystemMessage(input.getContextInstructions() + " The current date is " + LocalDate.now().format(DateTimeFormatter.ISO_DATE)),
-                new UserMessage(input.getPrompt())
+                new SystemMessage(claimCheck.resolve(instructions) + currentDate()),
+                new UserMessage(claimCheck.resolve(input.getPrompt()))
         );
-        String content = chatClient.prompt(prompt).call().content();
+        ChatClient.ChatClientRequestSpec request = model != null
+                ? chatClient.prompt(prompt).options(ChatOptions.builder().model(model).build())
+                : chatClient.prompt(prompt);
+        long start = System.nanoTime();
+        String workflowId = Activity.getExecutionContext().getInfo().getWorkflowId();
+        boolean stream = shouldStream(input, workflowId);
+        String content = callWithHeartbeat(() -> stream
+                ? streamContent(request, workflowId)
+                : request.call().content());
+        modelRouter.recordLatency(input.getCallType(), model, System.nanoTime() - start);
         String sanitized = sanitize(content);
         return parseJson(sanitized);
     }
 
+    /**
+     * Continues the conversation's provider session, sending only the messages the provider has not seen. The new
+     * response id is returned with the decision so the workflow can chain the next turn to it.
+     */
+    private Map<String, Object> planInSession(ToolPromptInput input, String model) {
+        String instructions = claimCheck.resolve(input.getContextInstructions()) + currentDate();
+        String turn = claimCheck.resolve(input.getSessionMessages().isEmpty()
+                ? input.getPrompt()
+                : sessionHistory(input) + "\n" + input.getPrompt());
+        long start = System.nanoTime();
+        ResponsesSessionClient.Reply reply;
+        try {
+            reply = callWithHeartbeat(() -> sessionClient.create(model, instructions, turn, input.getPreviousResponseId()));
+        } catch (ProviderSessionNotFoundException e) {
+            throw ApplicationFailure.newNonRetryableFailureWithCause(e.getMessage(), ToolPromptInput.SESSION_NOT_FOUND, e);
+        }
+        modelRouter.recordLatency(input.getCallType(), model, System.nanoTime() - start);
+        Map<String, Object> decision = new LinkedHashMap<>(parseJson(sanitize(reply.content())));
+        decision.put(ToolPromptInput.SESSION_RESPONSE_ID, reply.id());
+        return decision;
+    }
+
+    private static String sessionHistory(ToolPromptInput input) {
+        String heading = input.getPreviousResponseId() != null
+                ? "Conversation messages since your last response:"
+                : "Conversation history:";
+        return heading + "\n" + AgentJson.toPrettyJson(input.getSessionMessages()) + "\n";
+    }
+
+    private static String currentDate() {
+        return " The current date is " + LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+    }
+
+    // Retrying cannot publish a missing version, so the workflow decides what to do instead.
+    private static ApplicationFailure goalNotFound(GoalReference reference) {
+        return ApplicationFailure.newNonRetryableFailure(
+                "Goal " + reference + " is not available on this worker", GoalReference.NOT_FOUND);
+    }
+
     @Override
     public EnvLookupOutput getWorkflowEnvVars(EnvLookupInput input) {
-        boolean showConfirm = Boolean.parseBoolean(System.getenv().getOrDefault(input.getShowConfirmEnvVarName(), String.valueOf(input.isShowConfirmDefault())));
-        boolean multiGoalMode = "goal_choose_agent_type".equalsIgnoreCase(System.getenv().getOrDefault("AGENT_GOAL", ""));
-        return new EnvLookupOutput(showConfirm, multiGoalMode);
+        return WorkflowEnvSettings.resolve(input);
     }
 
     @Override
     public Map<String, Object> runTool(String toolName, Map<String, Object> args) {
         LOGGER.info("Executing tool {} with args {}", toolName, args);
-        return toolRegistry.execute(toolName, args);
+        ActivityExecutionContext context = Activity.getExecutionContext();
+        Scope metrics = context.getMetricsScope().tagged(Map.of("tool", toolName));
+        if (context.getInfo().getAttempt() > 1) {
+            metrics.counter("agent.tool.retries").inc(1);
+        }
+        try {
+            Map<String, Object> result = toolRegistry.execute(toolName, args);
+            if (ToolError.isError(result)) {
+                metrics.tagged(Map.of("retryable", "false")).counter("agent.tool.errors").inc(1);
+                return result;
+            }
+            return claimCheck.externalize(result);
+        } catch (ToolExecutionException e) {
+            metrics.tagged(Map.of("retryable", "true")).counter("agent.tool.errors").inc(1);
+            throw e;
+        }
     }
 
     @Override
@@ -128,13 +261,71 @@ public class ToolActivitiesImpl implements ToolActivities {
         return response;
     }
 
+    /**
+     * Runs a blocking LLM call on a separate thread while the activity thread heartbeats. When the workflow cancels
+     * the activity the next heartbeat throws, and the call is interrupted so the HTTP request is abandoned.
+     */
+    private <T> T callWithHeartbeat(Callable<T> call) {
+        ActivityExecutionContext context = Activity.getExecutionContext();
+        Future<T> future = llmExecutor.submit(call);
+        try {
+            while (true) {
+                try {
+                    return future.get(HEARTBEAT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    context.heartbeat(null);
+                }
+            }
+        } catch (ActivityCompletionException e) {
+            LOGGER.info("LLM call for workflow {} cancelled", context.getInfo().getWorkflowId());
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("LLM call failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for LLM response", e);
+        } finally {
+            future.cancel(true);
+        }
+    }
+
+    private boolean shouldStream(ToolPromptInput input, String workflowId) {
+        return streamingProperties.enabled()
+                && input.getCallType() != LlmCallType.VALIDATION
+                && responseStreamBroker.hasSubscribers(workflowId);
+    }
+
+    /**
+     * Streams the completion so subscribers see the {@code response} text while the rest of the JSON is still
+     * being generated. The full content is returned for normal parsing.
+     */
+    private String streamContent(ChatClient.ChatClientRequestSpec request, String workflowId) {
+        PartialResponseExtractor extractor = new PartialResponseExtractor();
+        StringBuilder content = new StringBuilder();
+        responseStreamBroker.start(workflowId);
+        try {
+            request.stream().content().doOnNext(chunk -> {
+                content.append(chunk);
+                String delta = extractor.append(chunk);
+                if (!delta.isEmpty()) {
+                    responseStreamBroker.delta(workflowId, delta);
+                }
+            }).blockLast();
+        } finally {
+            responseStreamBroker.end(workflowId);
+        }
+        return content.toString();
+    }
+
     private Map<String, Object> parseJson(String content) {
         if (content == null || content.isBlank()) {
             return Collections.emptyMap();
         }
         try {
-            JsonNode node = objectMapper.readTree(content);
-            return objectMapper.convertValue(node, Map.class);
+            return AgentJson.readMap(content);
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("Invalid JSON returned from model: " + content, e);
         }
@@ -1,16 +1,30 @@
 package io.temporal.agent.config;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.temporal.agent.activities.PlannerContextActivitiesImpl;
+import io.temporal.agent.activities.PlannerContextCache;
 import io.temporal.agent.activities.ToolActivitiesImpl;
+import io.temporal.agent.json.AgentJson;
+import io.temporal.agent.payload.Lz4PayloadCodec;
+import io.temporal.agent.payload.SmilePayloadConverter;
 import io.temporal.agent.workflow.AgentGoalWorkflowImpl;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowClientOptions;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.reporter.MicrometerClientStatsReporter;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.serviceclient.WorkflowServiceStubsOptions;
 import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.List;
+import java.util.UUID;
 
 import org.springframework.boot.web.client.RestClientCustomizer;
 import org.springframework.context.annotation.Bean;
@@ -23,8 +37,13 @@ import org.springframework.http.converter.json.MappingJackson2HttpMessageConvert
 public class TemporalConfiguration {
 
     @Bean
-    public WorkflowServiceStubs workflowServiceStubs(TemporalProperties properties) {
-        WorkflowServiceStubsOptions.Builder builder = WorkflowServiceStubsOptions.newBuilder();
+    public WorkflowServiceStubs workflowServiceStubs(TemporalProperties properties, MeterRegistry meterRegistry) {
+        // Route SDK and workflow metrics (Workflow.getMetricsScope) to the application's Micrometer registry.
+        Scope metricsScope = new RootScopeBuilder()
+                .reporter(new MicrometerClientStatsReporter(meterRegistry))
+                .reportEvery(com.uber.m3.util.Duration.ofSeconds(10));
+        WorkflowServiceStubsOptions.Builder builder = WorkflowServiceStubsOptions.newBuilder()
+                .setMetricsScope(metricsScope);
         if (properties.address() != null && !properties.address().isBlank()) {
             builder.setTarget(properties.address());
         }
@@ -35,10 +54,22 @@ public class TemporalConfiguration {
     public WorkflowClient workflowClient(WorkflowServiceStubs workflowServiceStubs, TemporalProperties properties) {
         WorkflowClientOptions options = WorkflowClientOptions.newBuilder()
                 .setNamespace(properties.namespace())
+                .setDataConverter(dataConverter(properties))
                 .build();
         return WorkflowClient.newInstance(workflowServiceStubs, options);
     }
 
+    static DataConverter dataConverter(TemporalProperties properties) {
+        // The codec always decodes, so turning compression off does not strand already-compressed histories.
+        int threshold = properties.payloadCompression() ? properties.compressionThresholdBytes() : Integer.MAX_VALUE;
+        // Like the codec, Smile is always decoded and the flag only chooses what is written, so workers with the flag
+        // off can still replay histories written with it on.
+        DefaultDataConverter payloadConverter = new DefaultDataConverter(
+                SmilePayloadConverter.withStandardConverters(properties.binaryPayloads()));
+        return new CodecDataConverter(payloadConverter,
+                List.of(new Lz4PayloadCodec(threshold)));
+    }
+
     @Bean(destroyMethod = "shutdown")
     public WorkerFactory workerFactory(
             WorkflowClient workflowClient,
@@ -48,16 +79,32 @@ public class TemporalConfiguration {
         Worker worker = factory.newWorker(properties.taskQueue());
         worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
         worker.registerActivitiesImplementations(toolActivities);
+        if (properties.workerAffinity()) {
+            // Conversations pin their planner turns to the queue only this process polls, where their context is cached.
+            String hostTaskQueue = hostTaskQueue(properties.taskQueue());
+            PlannerContextActivitiesImpl contextActivities = new PlannerContextActivitiesImpl(
+                    hostTaskQueue, toolActivities, new PlannerContextCache(properties.contextCacheEntries(), properties.contextCacheTtl()));
+            worker.registerActivitiesImplementations(contextActivities);
+            factory.newWorker(hostTaskQueue).registerActivitiesImplementations(contextActivities);
+        }
         factory.start();
         return factory;
     }
 
+    private static String hostTaskQueue(String taskQueue) {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        // A fresh suffix per process, so a restarted worker never inherits turns addressed to its predecessor.
+        return taskQueue + "-" + host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
     @Bean
     public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
-        ObjectMapper mapper = builder.createXmlMapper(false).build();
-        mapper.findAndRegisterModules();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        return mapper;
+        return AgentJson.configure(builder.createXmlMapper(false).build());
     }
 
     @Bean
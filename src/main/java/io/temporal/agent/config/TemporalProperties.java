@@ -1,5 +1,6 @@
 package io.temporal.agent.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
 
@@ -7,4 +8,11 @@ import org.springframework.boot.context.properties.bind.DefaultValue;
 public record TemporalProperties(
         @DefaultValue("localhost:7233") String address,
         @DefaultValue("default") String namespace,
-        @DefaultValue("agent-task-queue") String taskQueue) {}
+        @DefaultValue("agent-task-queue") String taskQueue,
+        @DefaultValue("true") boolean eagerStart,
+        @DefaultValue("false") boolean payloadCompression,
+        @DefaultValue("2048") int compressionThresholdBytes,
+        @DefaultValue("false") boolean binaryPayloads,
+        @DefaultValue("false") boolean workerAffinity,
+        @DefaultValue("1000") int contextCacheEntries,
+        @DefaultValue("1h") Duration contextCacheTtl) {}
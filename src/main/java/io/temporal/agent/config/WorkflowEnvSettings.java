@@ -0,0 +1,33 @@
+package io.temporal.agent.config;
+
+import io.temporal.agent.model.workflow.EnvLookupInput;
+import io.temporal.agent.model.workflow.EnvLookupOutput;
+import java.util.Map;
+
+/**
+ * Reads the per-conversation settings the workflow takes from the process environment. Used when starting a
+ * conversation so the values travel in the workflow input, and by the fallback activity for starters that do not
+ * supply them.
+ */
+public final class WorkflowEnvSettings {
+
+    public static final EnvLookupInput DEFAULT_LOOKUP = new EnvLookupInput("SHOW_CONFIRM", true);
+
+    private WorkflowEnvSettings() {
+    }
+
+    public static EnvLookupOutput resolve(EnvLookupInput input) {
+        return resolve(input, System.getenv());
+    }
+
+    static EnvLookupOutput resolve(EnvLookupInput input, Map<String, String> env) {
+        boolean showConfirm = Boolean.parseBoolean(env.getOrDefault(input.getShowConfirmEnvVarName(), String.valueOf(input.isShowConfirmDefault())));
+        boolean multiGoalMode = "goal_choose_agent_type".equalsIgnoreCase(env.getOrDefault("AGENT_GOAL", ""));
+        EnvLookupOutput output = new EnvLookupOutput(showConfirm, multiGoalMode);
+        output.setSupersedePrompts(Boolean.parseBoolean(env.getOrDefault("SUPERSEDE_PROMPTS", "true")));
+        output.setAutoConfirmSafeTools(Boolean.parseBoolean(env.getOrDefault("AUTO_CONFIRM_SAFE_TOOLS", "true")));
+        output.setProviderSessions(Boolean.parseBoolean(env.getOrDefault("LLM_SESSION", "false")));
+        output.setWorkerAffinity(Boolean.parseBoolean(env.getOrDefault("TEMPORAL_WORKER_AFFINITY", "false")));
+        return output;
+    }
+}
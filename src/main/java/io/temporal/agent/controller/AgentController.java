@@ -4,6 +4,7 @@ import io.temporal.agent.controller.dto.PromptRequest;
 import io.temporal.agent.controller.dto.SelectGoalRequest;
 import io.temporal.agent.controller.dto.StartConversationRequest;
 import io.temporal.agent.controller.dto.StartConversationResponse;
+import io.temporal.agent.controller.dto.StartWithPromptRequest;
 import io.temporal.agent.model.conversation.ConversationHistory;
 import io.temporal.agent.model.tools.AgentGoal;
 import io.temporal.agent.model.workflow.ToolDecision;
@@ -37,6 +38,13 @@ public class AgentController {
         return new StartConversationResponse(workflowId);
     }
 
+    @PostMapping("/start-with-prompt")
+    public StartConversationResponse startConversationWithPrompt(@Valid @RequestBody StartWithPromptRequest request) {
+        String workflowId = agentService.startConversationWithPrompt(
+                request.getWorkflowId(), request.getGoalId(), request.getPrompt(), request.isSkipGreeting());
+        return new StartConversationResponse(workflowId);
+    }
+
     @PostMapping("/{workflowId}/prompt")
     public ResponseEntity<Void> submitPrompt(@PathVariable String workflowId, @Valid @RequestBody PromptRequest request) {
         agentService.sendPrompt(workflowId, request.getPrompt());
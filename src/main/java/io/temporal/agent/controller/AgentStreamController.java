@@ -0,0 +1,41 @@
+package io.temporal.agent.controller;
+
+import io.temporal.agent.service.ResponseStreamBroker;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/agent")
+public class AgentStreamController {
+
+    private static final long STREAM_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final ResponseStreamBroker responseStreamBroker;
+
+    public AgentStreamController(ResponseStreamBroker responseStreamBroker) {
+        this.responseStreamBroker = responseStreamBroker;
+    }
+
+    @GetMapping(path = "/{workflowId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamResponses(@PathVariable String workflowId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        Runnable unsubscribe = responseStreamBroker.subscribe(workflowId, event -> {
+            try {
+                emitter.send(SseEmitter.event().name(event.type()).data(event.text()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+}
@@ -0,0 +1,46 @@
+package io.temporal.agent.controller.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class StartWithPromptRequest {
+
+    private String workflowId;
+    private String goalId;
+
+    @NotBlank
+    private String prompt;
+
+    private boolean skipGreeting;
+
+    public String getWorkflowId() {
+        return workflowId;
+    }
+
+    public void setWorkflowId(String workflowId) {
+        this.workflowId = workflowId;
+    }
+
+    public String getGoalId() {
+        return goalId;
+    }
+
+    public void setGoalId(String goalId) {
+        this.goalId = goalId;
+    }
+
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public void setPrompt(String prompt) {
+        this.prompt = prompt;
+    }
+
+    public boolean isSkipGreeting() {
+        return skipGreeting;
+    }
+
+    public void setSkipGreeting(boolean skipGreeting) {
+        this.skipGreeting = skipGreeting;
+    }
+}
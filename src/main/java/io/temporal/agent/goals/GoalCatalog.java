@@ -0,0 +1,149 @@
+package io.temporal.agent.goals;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Immutable, versioned snapshots of the goals in the {@link GoalRegistry}. Each snapshot is keyed by a
+ * {@link GoalReference} whose version is a hash of the goal's serialized content, so workflows can keep only the
+ * reference and every worker resolves it to the same definition. Snapshots are shared and must not be modified.
+ *
+ * <p>Every published version ships in the artifact under {@value #PUBLISHED_LOCATION}/{@code <goalId>/<version>.json}
+ * and files are never removed, so a worker can resolve versions created by older builds. {@code GoalCatalogTest}
+ * fails when a registry goal has no published snapshot; {@code gradle publishGoals} writes the missing ones.
+ */
+@Component
+public class GoalCatalog {
+
+    static final String PUBLISHED_LOCATION = "goal-catalog";
+
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final GoalRegistry goalRegistry;
+    private final Map<GoalReference, AgentGoal> published;
+    private final Map<GoalReference, AgentGoal> snapshots = new ConcurrentHashMap<>();
+
+    public GoalCatalog(GoalRegistry goalRegistry) {
+        this.goalRegistry = goalRegistry;
+        this.published = loadPublished();
+    }
+
+    /**
+     * Returns a reference to the current version of the goal, or {@code null} if the registry does not know it.
+     */
+    public GoalReference reference(String goalId) {
+        AgentGoal goal = goalRegistry.findGoal(goalId);
+        return goal != null ? reference(goal) : null;
+    }
+
+    /**
+     * Resolves a reference to its snapshot.
+     *
+     * @throws IllegalStateException if the version was never published and is not the registry's current one
+     */
+    public AgentGoal resolve(GoalReference reference) {
+        AgentGoal snapshot = find(reference);
+        if (snapshot == null) {
+            throw new IllegalStateException("Goal " + reference + " is not available on this worker");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Like {@link #resolve(GoalReference)}, but returns {@code null} for versions this worker does not have.
+     */
+    public AgentGoal find(GoalReference reference) {
+        AgentGoal snapshot = published.get(reference);
+        if (snapshot == null) {
+            snapshot = snapshots.get(reference);
+        }
+        if (snapshot == null && reference.equals(reference(reference.goalId()))) {
+            snapshot = snapshots.get(reference);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the reference to the goal as it is now. Versions that are not published are snapshotted in memory, so
+     * only this worker can resolve them.
+     */
+    public GoalReference reference(AgentGoal goal) {
+        String json = canonicalJson(goal);
+        GoalReference reference = new GoalReference(goal.getId(), contentHash(json));
+        if (!published.containsKey(reference)) {
+            snapshots.computeIfAbsent(reference, key -> readSnapshot(json));
+        }
+        return reference;
+    }
+
+    boolean isPublished(GoalReference reference) {
+        return published.containsKey(reference);
+    }
+
+    static String canonicalJson(AgentGoal goal) {
+        try {
+            return CANONICAL_MAPPER.writeValueAsString(goal);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize goal " + goal.getId(), ex);
+        }
+    }
+
+    // The version is taken from the file name: re-serializing an old snapshot after AgentGoal gains a field would
+    // hash differently.
+    private static Map<GoalReference, AgentGoal> loadPublished() {
+        Map<GoalReference, AgentGoal> loaded = new ConcurrentHashMap<>();
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver(GoalCatalog.class.getClassLoader())
+                    .getResources("classpath*:" + PUBLISHED_LOCATION + "/*/*.json");
+            for (Resource resource : resources) {
+                try (InputStream in = resource.getInputStream()) {
+                    AgentGoal goal = CANONICAL_MAPPER.readValue(in, AgentGoal.class);
+                    String version = resource.getFilename().substring(0, resource.getFilename().length() - ".json".length());
+                    loaded.put(new GoalReference(goal.getId(), version), goal);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to load published goals", ex);
+        }
+        return loaded;
+    }
+
+    private static AgentGoal readSnapshot(String json) {
+        try {
+            return CANONICAL_MAPPER.readValue(json, AgentGoal.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to snapshot goal", ex);
+        }
+    }
+
+    private static String contentHash(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
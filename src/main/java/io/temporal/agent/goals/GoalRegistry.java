@@ -1,8 +1,12 @@
 package io.temporal.agent.goals;
 
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.IdleAction;
+import io.temporal.agent.model.tools.ToolChain;
+import io.temporal.agent.model.tools.ToolChainStep;
 import io.temporal.agent.model.tools.ToolDefinition;
 import io.temporal.agent.tools.ToolRegistry;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -68,8 +72,8 @@ public class GoalRegistry implements SmartInitializingSingleton {
                 "Serve as a friendly order support specialist who confirms the customer's details, retrieves the latest status,",
                 "and clearly explains what you find.",
                 "Always gather the order identifier before calling GetOrder.",
-                "If the package has shipped or delivered, proactively offer to run TrackPackage to share the current tracking",
-                "information.",
+                "When the order has a tracking ID, TrackPackage runs automatically right after GetOrder, so share the",
+                "current tracking information together with the order status.",
                 "Keep responses short, acknowledge what the customer has already said, and ask only one question at a time."));
         goal.setStarterPrompt(String.join(" ",
                 "Warmly introduce yourself as the order support assistant, mention you can check order status and tracking updates,",
@@ -82,6 +86,9 @@ public class GoalRegistry implements SmartInitializingSingleton {
                 "tool_result: {... order information ...}",
                 "agent: Your order shipped earlier today and the tracking ID is 039813852990618. Want me to keep an eye on delivery for you?"));
         goal.setTools(List.of(getOrder, trackPackage));
+        goal.setToolChains(List.of(new ToolChain("GetOrder",
+                List.of(new ToolChainStep("TrackPackage", Map.of("tracking_id", "tracking_id"))))));
+        goal.setIdleTimeoutSeconds(Duration.ofMinutes(30).toSeconds());
         return goal;
     }
 
@@ -113,6 +120,9 @@ public class GoalRegistry implements SmartInitializingSingleton {
                 "tool_result: {... list of orders ...}",
                 "agent: I found a few recent orders for that email. Want details on any particular one?"));
         goal.setTools(List.of(listOrders, getOrder, trackPackage));
+        goal.setPrefetchHints(List.of(new ToolChain("GetOrder",
+                List.of(new ToolChainStep("TrackPackage", Map.of("tracking_id", "tracking_id"))))));
+        goal.setIdleTimeoutSeconds(Duration.ofMinutes(30).toSeconds());
         return goal;
     }
 
@@ -136,6 +146,7 @@ public class GoalRegistry implements SmartInitializingSingleton {
                 "user: Yes, order 102.",
                 "agent: Perfect. I'll hand things off to the order status assistant so we can look that up together."));
         goal.setTools(Collections.emptyList());
+        goal.setIdleTimeoutSeconds(Duration.ofMinutes(15).toSeconds());
         return goal;
     }
 
@@ -167,6 +178,9 @@ public class GoalRegistry implements SmartInitializingSingleton {
                 "user: Yes, show me what's available.",
                 "agent: Here are the top options... Which template should we use and who needs to sign?"));
         goal.setTools(List.of(listTemplates, createDocument, sendDocument, getStatus));
+        // Agreements wait on other people, so keep the conversation resumable instead of ending it.
+        goal.setIdleTimeoutSeconds(Duration.ofHours(2).toSeconds());
+        goal.setIdleAction(IdleAction.PARK);
         return goal;
     }
 
@@ -178,6 +192,10 @@ public class GoalRegistry implements SmartInitializingSingleton {
         clone.setName(original.getName());
         clone.setDescription(original.getDescription());
         clone.setArguments(original.getArguments());
+        clone.setExecutionMode(original.getExecutionMode());
+        clone.setResponseTemplate(original.getResponseTemplate());
+        clone.setNextStepRule(original.getNextStepRule());
+        clone.setEffect(original.getEffect());
         clone.setHandler(original.getHandler());
         return clone;
     }
@@ -0,0 +1,80 @@
+package io.temporal.agent.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.util.Map;
+
+/**
+ * Shared JSON mapper with readers and writers built once for the per-turn hot paths: history and tool results
+ * rendered into prompts, and planner responses parsed into maps. Readers and writers are immutable and safe to share
+ * between activity threads. Setting {@code AGENT_JSON_BLACKBIRD=true} adds the Blackbird module, which replaces
+ * reflective property access with generated lambdas in this mapper and the Spring MVC mapper.
+ */
+public final class AgentJson {
+
+    static final boolean BLACKBIRD = Boolean.parseBoolean(System.getenv("AGENT_JSON_BLACKBIRD"));
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private static final ObjectMapper MAPPER = configure(new ObjectMapper());
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+    private static final ObjectReader MAP_READER = MAPPER.readerFor(MAP_TYPE);
+
+    private AgentJson() {
+    }
+
+    /** Applies the agent's module and feature settings to a mapper, such as the one Spring builds for MVC. */
+    public static ObjectMapper configure(ObjectMapper mapper) {
+        return configure(mapper, BLACKBIRD);
+    }
+
+    static ObjectMapper configure(ObjectMapper mapper, boolean blackbird) {
+        for (Module module : ObjectMapper.findModules()) {
+            if (!(module instanceof BlackbirdModule)) {
+                mapper.registerModule(module);
+            }
+        }
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    public static ObjectWriter writer() {
+        return WRITER;
+    }
+
+    public static ObjectWriter prettyWriter() {
+        return PRETTY_WRITER;
+    }
+
+    public static ObjectReader mapReader() {
+        return MAP_READER;
+    }
+
+    /** Pretty-printed JSON for prompts, falling back to {@code toString()} for values Jackson cannot write. */
+    public static String toPrettyJson(Object value) {
+        try {
+            return PRETTY_WRITER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(value);
+        }
+    }
+
+    public static Map<String, Object> readMap(String json) throws JsonProcessingException {
+        return MAP_READER.readValue(json);
+    }
+}
@@ -0,0 +1,103 @@
+package io.temporal.agent.llm;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+import org.springframework.ai.chat.model.ChatModel;
+
+/**
+ * A single OpenAI-compatible deployment tracked by {@link LlmEndpointPool}. Keeps an exponentially weighted
+ * moving average of call latency and a simple three-state circuit breaker.
+ */
+public final class LlmEndpoint {
+
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final double weight;
+    private final ChatModel chatModel;
+    private final BooleanSupplier probe;
+
+    private double ewmaLatencyMillis = -1;
+    private int consecutiveFailures;
+    private CircuitState state = CircuitState.CLOSED;
+    private Instant openedAt;
+
+    public LlmEndpoint(String name, double weight, ChatModel chatModel, BooleanSupplier probe) {
+        this.name = name;
+        this.weight = weight > 0 ? weight : 1;
+        this.chatModel = chatModel;
+        this.probe = probe;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ChatModel getChatModel() {
+        return chatModel;
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    public synchronized double getEwmaLatencyMillis() {
+        return ewmaLatencyMillis;
+    }
+
+    synchronized boolean isAvailable() {
+        return state != CircuitState.OPEN;
+    }
+
+    /**
+     * Lower is better. Endpoints without a latency sample score zero so each one receives traffic at least once.
+     */
+    synchronized double score() {
+        return ewmaLatencyMillis < 0 ? 0 : ewmaLatencyMillis / weight;
+    }
+
+    synchronized void recordSuccess(long latencyMillis, double alpha) {
+        ewmaLatencyMillis = ewmaLatencyMillis < 0
+                ? latencyMillis
+                : alpha * latencyMillis + (1 - alpha) * ewmaLatencyMillis;
+        consecutiveFailures = 0;
+        state = CircuitState.CLOSED;
+        openedAt = null;
+    }
+
+    synchronized void recordFailure(int failureThreshold, Instant now) {
+        consecutiveFailures++;
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = CircuitState.OPEN;
+            openedAt = now;
+        }
+    }
+
+    synchronized boolean isProbeDue(Instant now, Duration openDuration) {
+        return state == CircuitState.OPEN && openedAt != null && !now.isBefore(openedAt.plus(openDuration));
+    }
+
+    boolean probe() {
+        try {
+            return probe.getAsBoolean();
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    synchronized void halfOpen() {
+        if (state == CircuitState.OPEN) {
+            state = CircuitState.HALF_OPEN;
+        }
+    }
+
+    synchronized void reopen(Instant now) {
+        state = CircuitState.OPEN;
+        openedAt = now;
+    }
+}
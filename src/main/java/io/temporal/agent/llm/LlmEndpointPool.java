@@ -0,0 +1,164 @@
+package io.temporal.agent.llm;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link ChatModel} that spreads calls across several OpenAI-compatible endpoints. Each call goes to the available
+ * endpoint with the best weighted latency average and fails over to the next one on error. Endpoints that fail
+ * repeatedly are taken out of rotation until a background probe sees them healthy again. Errors caused by the request
+ * itself, such as a bad request, an oversized context or rejected credentials, are rethrown without failover and do
+ * not count against the endpoint, since every endpoint would reject the same request.
+ */
+public class LlmEndpointPool implements ChatModel, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmEndpointPool.class);
+
+    private final List<LlmEndpoint> endpoints;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final double latencyAlpha;
+    private final ScheduledExecutorService prober;
+
+    public LlmEndpointPool(List<LlmEndpoint> endpoints, int failureThreshold, Duration openDuration,
+                           Duration probeInterval, double latencyAlpha) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one LLM endpoint is required");
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration != null ? openDuration : Duration.ZERO;
+        this.latencyAlpha = latencyAlpha;
+        if (probeInterval != null && !probeInterval.isZero() && !probeInterval.isNegative()) {
+            this.prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "llm-endpoint-prober");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = probeInterval.toMillis();
+            prober.scheduleWithFixedDelay(this::probeOpenEndpoints, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.prober = null;
+        }
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        List<LlmEndpoint> candidates = rankedEndpoints();
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("No healthy LLM endpoints available");
+        }
+        RuntimeException lastFailure = null;
+        for (LlmEndpoint endpoint : candidates) {
+            long start = System.nanoTime();
+            try {
+                ChatResponse response = endpoint.getChatModel().call(prompt);
+                endpoint.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), latencyAlpha);
+                return response;
+            } catch (RuntimeException ex) {
+                if (isRequestError(ex)) {
+                    throw ex;
+                }
+                endpoint.recordFailure(failureThreshold, Instant.now());
+                LOGGER.warn("LLM endpoint {} failed ({}); circuit is {}", endpoint.getName(), ex.getMessage(), endpoint.getState());
+                lastFailure = ex;
+            }
+        }
+        throw lastFailure;
+    }
+
+    /**
+     * Streams from the best endpoint without failover, since partial output may already have reached the caller.
+     */
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        List<LlmEndpoint> candidates = rankedEndpoints();
+        if (candidates.isEmpty()) {
+            return Flux.error(new IllegalStateException("No healthy LLM endpoints available"));
+        }
+        LlmEndpoint endpoint = candidates.get(0);
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return endpoint.getChatModel().stream(prompt)
+                    .doOnComplete(() -> endpoint.recordSuccess(
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), latencyAlpha))
+                    .doOnError(ex -> {
+                        if (!isRequestError(ex)) {
+                            endpoint.recordFailure(failureThreshold, Instant.now());
+                        }
+                    });
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return endpoints.get(0).getChatModel().getDefaultOptions();
+    }
+
+    public List<LlmEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    List<LlmEndpoint> rankedEndpoints() {
+        List<LlmEndpoint> available = new ArrayList<>();
+        for (LlmEndpoint endpoint : endpoints) {
+            if (endpoint.isAvailable()) {
+                available.add(endpoint);
+            }
+        }
+        available.sort(Comparator.comparingDouble(LlmEndpoint::score));
+        return available;
+    }
+
+    // 429 is left out: it reports the endpoint's load, so another endpoint may well accept the request.
+    static boolean isRequestError(Throwable ex) {
+        if (ex instanceof NonTransientAiException) {
+            return true;
+        }
+        if (ex instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return ex instanceof WebClientResponseException responseError
+                && responseError.getStatusCode().is4xxClientError()
+                && responseError.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    void probeOpenEndpoints() {
+        Instant now = Instant.now();
+        for (LlmEndpoint endpoint : endpoints) {
+            if (!endpoint.isProbeDue(now, openDuration)) {
+                continue;
+            }
+            if (endpoint.probe()) {
+                LOGGER.info("LLM endpoint {} answered its health probe; allowing trial traffic", endpoint.getName());
+                endpoint.halfOpen();
+            } else {
+                endpoint.reopen(now);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.temporal.agent.llm;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.RestClient;
+
+@Configuration
+@EnableConfigurationProperties(LlmPoolProperties.class)
+@ConditionalOnProperty(prefix = "llm.pool", name = "enabled", havingValue = "true")
+public class LlmPoolConfiguration {
+
+    private static final Duration MAX_PROBE_TIMEOUT = Duration.ofSeconds(5);
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public LlmEndpointPool llmEndpointPool(LlmPoolProperties properties, OpenAiChatModel defaultChatModel) {
+        Duration probeTimeout = probeTimeout(properties.probeInterval());
+        List<LlmEndpoint> endpoints = properties.endpointsOrEmpty().stream()
+                .map(endpoint -> createEndpoint(endpoint, (OpenAiChatOptions) defaultChatModel.getDefaultOptions(),
+                        probeTimeout))
+                .toList();
+        return new LlmEndpointPool(endpoints, properties.failureThreshold(), properties.openDuration(),
+                properties.probeInterval(), properties.latencyAlpha());
+    }
+
+    static LlmEndpoint createEndpoint(LlmPoolProperties.Endpoint endpoint, OpenAiChatOptions defaults,
+                                      Duration probeTimeout) {
+        OpenAiApi api = OpenAiApi.builder()
+                .baseUrl(endpoint.baseUrl())
+                .apiKey(endpoint.apiKey() != null ? endpoint.apiKey() : "")
+                .build();
+        OpenAiChatOptions options = defaults != null ? defaults.copy() : new OpenAiChatOptions();
+        if (endpoint.model() != null && !endpoint.model().isBlank()) {
+            options.setModel(endpoint.model());
+        }
+        // The pool fails over between endpoints itself, so each endpoint gets a single attempt.
+        ChatModel chatModel = OpenAiChatModel.builder()
+                .openAiApi(api)
+                .defaultOptions(options)
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build();
+        String name = endpoint.name() != null ? endpoint.name() : endpoint.baseUrl();
+        RestClient probeClient = probeClient(endpoint, probeTimeout);
+        return new LlmEndpoint(name, endpoint.weight(), chatModel, () -> probe(probeClient));
+    }
+
+    /**
+     * Half the probe interval, capped at five seconds, so a hung endpoint cannot hold
+     * the single prober thread past the next round.
+     */
+    static Duration probeTimeout(Duration probeInterval) {
+        if (probeInterval == null || probeInterval.isZero() || probeInterval.isNegative()) {
+            return MAX_PROBE_TIMEOUT;
+        }
+        Duration half = probeInterval.dividedBy(2);
+        return half.compareTo(MAX_PROBE_TIMEOUT) < 0 ? half : MAX_PROBE_TIMEOUT;
+    }
+
+    private static RestClient probeClient(LlmPoolProperties.Endpoint endpoint, Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        return RestClient.builder()
+                .baseUrl(endpoint.baseUrl())
+                .requestFactory(requestFactory)
+                .defaultHeaders(headers -> {
+                    if (endpoint.apiKey() != null && !endpoint.apiKey().isBlank()) {
+                        headers.setBearerAuth(endpoint.apiKey());
+                    }
+                })
+                .build();
+    }
+
+    private static boolean probe(RestClient probeClient) {
+        return probeClient.get()
+                .uri("/v1/models")
+                .retrieve()
+                .toBodilessEntity()
+                .getStatusCode()
+                .is2xxSuccessful();
+    }
+}
@@ -0,0 +1,28 @@
+package io.temporal.agent.llm;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "llm.pool")
+public record LlmPoolProperties(
+        boolean enabled,
+        List<Endpoint> endpoints,
+        @DefaultValue("3") int failureThreshold,
+        @DefaultValue("30s") Duration openDuration,
+        @DefaultValue("10s") Duration probeInterval,
+        @DefaultValue("0.3") double latencyAlpha) {
+
+    public List<Endpoint> endpointsOrEmpty() {
+        return endpoints != null ? endpoints : List.of();
+    }
+
+    public record Endpoint(
+            String name,
+            String baseUrl,
+            String apiKey,
+            @DefaultValue("1") double weight,
+            String model) {
+    }
+}
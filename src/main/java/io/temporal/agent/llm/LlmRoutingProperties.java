@@ -0,0 +1,16 @@
+package io.temporal.agent.llm;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "llm.routing")
+public record LlmRoutingProperties(
+        String validationModel,
+        String goalSelectionModel,
+        String planningModel,
+        Map<String, String> goalModels) {
+
+    public Map<String, String> goalModelsOrEmpty() {
+        return goalModels != null ? goalModels : Map.of();
+    }
+}
@@ -0,0 +1,17 @@
+package io.temporal.agent.llm;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LlmSessionProperties.class)
+@ConditionalOnProperty(prefix = "llm.session", name = "enabled", havingValue = "true")
+public class LlmSessionConfiguration {
+
+    @Bean
+    public ResponsesSessionClient responsesSessionClient(LlmSessionProperties properties) {
+        return new ResponsesSessionClient(properties.baseUrl(), properties.apiKey(), properties.model());
+    }
+}
@@ -0,0 +1,10 @@
+package io.temporal.agent.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "llm.session")
+public record LlmSessionProperties(
+        boolean enabled,
+        String baseUrl,
+        String apiKey,
+        String model) {}
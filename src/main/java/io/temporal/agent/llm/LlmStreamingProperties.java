@@ -0,0 +1,7 @@
+package io.temporal.agent.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "llm.streaming")
+public record LlmStreamingProperties(@DefaultValue("true") boolean enabled) {}
@@ -0,0 +1,57 @@
+package io.temporal.agent.llm;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.temporal.agent.model.workflow.LlmCallType;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses the model for each LLM call so that cheap models can answer validation and goal-selection prompts while
+ * the configured default (or a per-goal override) handles multi-tool planning.
+ */
+@Component
+@EnableConfigurationProperties(LlmRoutingProperties.class)
+public class ModelRouter {
+
+    static final String DEFAULT_MODEL_TAG = "default";
+
+    private final LlmRoutingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ModelRouter(LlmRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the model to use, or {@code null} when the chat model's default should apply.
+     */
+    public String resolveModel(LlmCallType callType, String goalId) {
+        LlmCallType type = callType != null ? callType : LlmCallType.PLANNING;
+        if (type == LlmCallType.VALIDATION) {
+            return blankToNull(properties.validationModel());
+        }
+        String goalModel = goalId != null ? blankToNull(properties.goalModelsOrEmpty().get(goalId)) : null;
+        if (goalModel != null) {
+            return goalModel;
+        }
+        return type == LlmCallType.GOAL_SELECTION
+                ? blankToNull(properties.goalSelectionModel())
+                : blankToNull(properties.planningModel());
+    }
+
+    public void recordLatency(LlmCallType callType, String model, long elapsedNanos) {
+        Timer.builder("agent.llm.latency")
+                .description("Latency of LLM calls by route")
+                .tag("route", callType != null ? callType.name().toLowerCase() : "planning")
+                .tag("model", model != null ? model : DEFAULT_MODEL_TAG)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,130 @@
+package io.temporal.agent.llm;
+
+/**
+ * Incrementally scans planner JSON as it streams in and returns the decoded text of the top-level
+ * {@code response} field as soon as each character arrives. Everything else in the document is ignored, so
+ * callers still parse the full completion once the stream ends.
+ */
+public final class PartialResponseExtractor {
+
+    private static final String RESPONSE_FIELD = "response";
+
+    private int depth;
+    private boolean inString;
+    private boolean escape;
+    private StringBuilder unicode;
+    private StringBuilder keyBuffer;
+    private String currentKey;
+    private boolean awaitingValue;
+    private boolean capturing;
+    private boolean finished;
+
+    /**
+     * Feeds the next chunk of model output and returns any newly decoded response text (possibly empty).
+     */
+    public String append(String chunk) {
+        StringBuilder out = new StringBuilder();
+        if (chunk == null) {
+            return "";
+        }
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (inString) {
+                consumeStringChar(c, out);
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    if (depth == 1 && awaitingValue) {
+                        awaitingValue = false;
+                        capturing = !finished && RESPONSE_FIELD.equals(currentKey);
+                    } else if (depth == 1) {
+                        keyBuffer = new StringBuilder();
+                    }
+                }
+                case '{', '[' -> {
+                    if (depth == 1) {
+                        awaitingValue = false;
+                    }
+                    depth++;
+                }
+                case '}', ']' -> depth = Math.max(0, depth - 1);
+                case ':' -> {
+                    if (depth == 1) {
+                        awaitingValue = true;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        currentKey = null;
+                        awaitingValue = false;
+                    }
+                }
+                default -> {
+                    if (depth == 1 && awaitingValue && !Character.isWhitespace(c)) {
+                        awaitingValue = false;
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void consumeStringChar(char c, StringBuilder out) {
+        if (unicode != null) {
+            if (Character.digit(c, 16) < 0) {
+                // Malformed escape from the model: drop it rather than fail the planner call, and read this
+                // character as if the escape had not been there.
+                unicode = null;
+                consumeStringChar(c, out);
+                return;
+            }
+            unicode.append(c);
+            if (unicode.length() == 4) {
+                emit((char) Integer.parseInt(unicode.toString(), 16), out);
+                unicode = null;
+            }
+            return;
+        }
+        if (escape) {
+            escape = false;
+            switch (c) {
+                case 'u' -> unicode = new StringBuilder(4);
+                case 'n' -> emit('\n', out);
+                case 't' -> emit('\t', out);
+                case 'r' -> emit('\r', out);
+                case 'b' -> emit('\b', out);
+                case 'f' -> emit('\f', out);
+                default -> emit(c, out);
+            }
+            return;
+        }
+        if (c == '\\') {
+            escape = true;
+        } else if (c == '"') {
+            inString = false;
+            if (capturing) {
+                capturing = false;
+                finished = true;
+            } else if (keyBuffer != null) {
+                currentKey = keyBuffer.toString();
+                keyBuffer = null;
+            }
+        } else {
+            emit(c, out);
+        }
+    }
+
+    private void emit(char c, StringBuilder out) {
+        if (capturing) {
+            out.append(c);
+        } else if (keyBuffer != null) {
+            keyBuffer.append(c);
+        }
+    }
+}
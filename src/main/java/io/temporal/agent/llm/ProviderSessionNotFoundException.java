@@ -0,0 +1,12 @@
+package io.temporal.agent.llm;
+
+/**
+ * The provider no longer holds the response a session turn continues from, for example because it expired. The
+ * caller has to resend the whole conversation.
+ */
+public class ProviderSessionNotFoundException extends RuntimeException {
+
+    public ProviderSessionNotFoundException(String responseId, Throwable cause) {
+        super("Provider session " + responseId + " is no longer available", cause);
+    }
+}
@@ -0,0 +1,84 @@
+package io.temporal.agent.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Client for an OpenAI Responses-compatible endpoint with server-side conversation state. Each reply is stored by
+ * the provider, and the next turn names it as {@code previous_response_id} so only new input is sent. Instructions
+ * are not carried over by the provider and go with every call.
+ */
+public class ResponsesSessionClient {
+
+    private final RestClient restClient;
+    private final String defaultModel;
+
+    public ResponsesSessionClient(String baseUrl, String apiKey, String defaultModel) {
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeaders(headers -> {
+                    if (apiKey != null && !apiKey.isBlank()) {
+                        headers.setBearerAuth(apiKey);
+                    }
+                })
+                .build();
+        this.defaultModel = defaultModel;
+    }
+
+    /**
+     * Sends one turn. Throws {@link ProviderSessionNotFoundException} when {@code previousResponseId} is unknown to
+     * the provider.
+     */
+    public Reply create(String model, String instructions, String input, String previousResponseId) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model != null ? model : defaultModel);
+        body.put("instructions", instructions);
+        body.put("input", input);
+        body.put("store", true);
+        if (previousResponseId != null) {
+            body.put("previous_response_id", previousResponseId);
+        }
+        JsonNode response;
+        try {
+            response = restClient.post()
+                    .uri("/v1/responses")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body)
+                    .retrieve()
+                    .body(JsonNode.class);
+        } catch (HttpClientErrorException ex) {
+            if (previousResponseId != null && isSessionNotFound(ex)) {
+                throw new ProviderSessionNotFoundException(previousResponseId, ex);
+            }
+            throw ex;
+        }
+        if (response == null || !response.hasNonNull("id")) {
+            throw new IllegalStateException("Responses endpoint returned no response id");
+        }
+        return new Reply(response.get("id").asText(), outputText(response));
+    }
+
+    private static boolean isSessionNotFound(HttpClientErrorException ex) {
+        return ex.getStatusCode().value() == 404
+                || ex.getResponseBodyAsString().contains("previous_response_not_found");
+    }
+
+    private static String outputText(JsonNode response) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode item : response.path("output")) {
+            for (JsonNode content : item.path("content")) {
+                if ("output_text".equals(content.path("type").asText())) {
+                    text.append(content.path("text").asText());
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    public record Reply(String id, String content) {
+    }
+}
@@ -0,0 +1,133 @@
+package io.temporal.agent.model.conversation;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Immutable, array-backed copies of the JSON-like maps and lists kept in conversation history. They hold no entry or
+ * node objects, keep insertion order (so serialized prompts are unchanged), intern keys, and allow null values.
+ */
+final class CompactValues {
+
+    private CompactValues() {
+    }
+
+    static Object compact(Object value) {
+        if (value instanceof CompactMap || value instanceof CompactList) {
+            return value;
+        }
+        if (value instanceof Map<?, ?> map) {
+            String[] keys = new String[map.size()];
+            Object[] values = new Object[map.size()];
+            int index = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keys[index] = String.valueOf(entry.getKey()).intern();
+                values[index] = compact(entry.getValue());
+                index++;
+            }
+            return new CompactMap(keys, values);
+        }
+        if (value instanceof List<?> list) {
+            Object[] items = new Object[list.size()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = compact(list.get(i));
+            }
+            return new CompactList(items);
+        }
+        return value;
+    }
+
+    static final class CompactMap extends AbstractMap<String, Object> implements Serializable {
+
+        private final String[] keys;
+        private final Object[] values;
+
+        private CompactMap(String[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : null;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(keys[index], values[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+
+    static final class CompactList extends AbstractList<Object> implements RandomAccess, Serializable {
+
+        private final Object[] items;
+
+        private CompactList(Object[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public Object get(int index) {
+            return items[index];
+        }
+
+        @Override
+        public int size() {
+            return items.length;
+        }
+    }
+}
@@ -19,10 +19,14 @@ public class ConversationHistory {
         return messages;
     }
 
-    public void addMessage(String type, Object response) {
+    public void addMessage(MessageType type, Object response) {
         messages.add(ConversationMessage.of(type, response));
     }
 
+    public void addMessage(String type, Object response) {
+        addMessage(MessageType.fromValue(type), response);
+    }
+
     public void clear() {
         messages.clear();
     }
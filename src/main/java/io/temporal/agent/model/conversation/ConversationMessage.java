@@ -1,14 +1,32 @@
 package io.temporal.agent.model.conversation;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
+/**
+ * One history entry. Map and list responses are stored as compact immutable copies with interned keys, since every
+ * cached workflow keeps its full history in memory.
+ */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"type", "response"})
 public record ConversationMessage(
-        @JsonProperty("type") String type,
+        @JsonIgnore MessageType messageType,
         @JsonProperty("response") Object response) {
 
-    public static ConversationMessage of(String type, Object response) {
-        return new ConversationMessage(type, response);
+    public static ConversationMessage of(MessageType type, Object response) {
+        return new ConversationMessage(type, CompactValues.compact(response));
+    }
+
+    @JsonCreator
+    public static ConversationMessage of(@JsonProperty("type") String type, @JsonProperty("response") Object response) {
+        return of(MessageType.fromValue(type), response);
+    }
+
+    @JsonProperty("type")
+    public String type() {
+        return messageType.getJsonValue();
     }
 }
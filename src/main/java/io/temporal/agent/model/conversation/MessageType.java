@@ -0,0 +1,28 @@
+package io.temporal.agent.model.conversation;
+
+public enum MessageType {
+    USER("user"),
+    AGENT("agent"),
+    USER_CONFIRMED_TOOL_RUN("user_confirmed_tool_run"),
+    TOOL_RESULT("tool_result"),
+    CONVERSATION_SUMMARY("conversation_summary");
+
+    private final String jsonValue;
+
+    MessageType(String jsonValue) {
+        this.jsonValue = jsonValue;
+    }
+
+    public String getJsonValue() {
+        return jsonValue;
+    }
+
+    public static MessageType fromValue(String value) {
+        for (MessageType type : values()) {
+            if (type.jsonValue.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown message type: " + value);
+    }
+}
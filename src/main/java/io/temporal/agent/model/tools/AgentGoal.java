@@ -13,10 +13,14 @@ public class AgentGoal implements Serializable {
     private String agentName;
     private String agentFriendlyDescription;
     private List<ToolDefinition> tools = new ArrayList<>();
+    private List<ToolChain> toolChains = new ArrayList<>();
+    private List<ToolChain> prefetchHints = new ArrayList<>();
     private String description;
     private String starterPrompt;
     private String exampleConversationHistory;
     private McpServerDefinition mcpServerDefinition;
+    private long idleTimeoutSeconds;
+    private IdleAction idleAction = IdleAction.END;
 
     public AgentGoal() {
     }
@@ -81,6 +85,33 @@ public class AgentGoal implements Serializable {
         this.tools = tools != null ? new ArrayList<>(tools) : new ArrayList<>();
     }
 
+    public List<ToolChain> getToolChains() {
+        return toolChains;
+    }
+
+    public void setToolChains(List<ToolChain> toolChains) {
+        this.toolChains = toolChains != null ? new ArrayList<>(toolChains) : new ArrayList<>();
+    }
+
+    public ToolChain findToolChain(String trigger) {
+        return toolChains.stream()
+                .filter(chain -> chain.getTrigger() != null && chain.getTrigger().equals(trigger))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Likely follow-up calls after a tool completes. Unlike {@link #getToolChains()} these are only prefetched; they
+     * still need a matching planner decision before their results are used.
+     */
+    public List<ToolChain> getPrefetchHints() {
+        return prefetchHints;
+    }
+
+    public void setPrefetchHints(List<ToolChain> prefetchHints) {
+        this.prefetchHints = prefetchHints != null ? new ArrayList<>(prefetchHints) : new ArrayList<>();
+    }
+
     public String getDescription() {
         return description;
     }
@@ -112,4 +143,24 @@ public class AgentGoal implements Serializable {
     public void setMcpServerDefinition(McpServerDefinition mcpServerDefinition) {
         this.mcpServerDefinition = mcpServerDefinition;
     }
+
+    /**
+     * How long the conversation may wait for the user before {@link #getIdleAction()} applies. Zero disables the
+     * timeout.
+     */
+    public long getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public void setIdleTimeoutSeconds(long idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    public IdleAction getIdleAction() {
+        return idleAction;
+    }
+
+    public void setIdleAction(IdleAction idleAction) {
+        this.idleAction = idleAction != null ? idleAction : IdleAction.END;
+    }
 }
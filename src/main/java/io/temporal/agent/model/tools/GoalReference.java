@@ -0,0 +1,21 @@
+package io.temporal.agent.model.tools;
+
+import java.io.Serializable;
+
+/**
+ * Identifies one immutable version of a goal in the {@link io.temporal.agent.goals.GoalCatalog}. Workflow inputs and
+ * signals carry this instead of the full {@link AgentGoal}; the version is a hash of the goal's content, so a
+ * reference always resolves to the same definition.
+ */
+public record GoalReference(String goalId, String version) implements Serializable {
+
+    /**
+     * Failure type raised when a worker cannot resolve a reference.
+     */
+    public static final String NOT_FOUND = "GoalVersionNotFound";
+
+    @Override
+    public String toString() {
+        return goalId + "@" + version;
+    }
+}
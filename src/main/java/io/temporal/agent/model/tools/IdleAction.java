@@ -0,0 +1,11 @@
+package io.temporal.agent.model.tools;
+
+/**
+ * What a conversation does once its goal's idle timeout passes without user activity.
+ */
+public enum IdleAction {
+    /** Finish the workflow with a closing summary. */
+    END,
+    /** Continue-as-new into a run that holds only the summary and waits for the user to come back. */
+    PARK
+}
@@ -1,12 +1,16 @@
 package io.temporal.agent.model.tools;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ToolArgument implements Serializable {
 
     private String name;
     private String type;
     private String description;
+    private String format;
+    private List<String> itemFields = new ArrayList<>();
 
     public ToolArgument() {
     }
@@ -40,4 +44,26 @@ public class ToolArgument implements Serializable {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    /**
+     * Optional value format checked before the tool runs, currently {@code email}.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /**
+     * For {@code array} arguments of objects, the fields every element must carry.
+     */
+    public List<String> getItemFields() {
+        return itemFields;
+    }
+
+    public void setItemFields(List<String> itemFields) {
+        this.itemFields = itemFields != null ? new ArrayList<>(itemFields) : new ArrayList<>();
+    }
 }
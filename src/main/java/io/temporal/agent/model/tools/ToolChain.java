@@ -0,0 +1,39 @@
+package io.temporal.agent.model.tools;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed sequence of tools a goal always runs after {@code trigger} completes. The workflow executes the steps
+ * without consulting the LLM in between and asks it to summarize only once the chain finishes or stops early.
+ */
+public class ToolChain implements Serializable {
+
+    private String trigger;
+    private List<ToolChainStep> steps = new ArrayList<>();
+
+    public ToolChain() {
+    }
+
+    public ToolChain(String trigger, List<ToolChainStep> steps) {
+        this.trigger = trigger;
+        setSteps(steps);
+    }
+
+    public String getTrigger() {
+        return trigger;
+    }
+
+    public void setTrigger(String trigger) {
+        this.trigger = trigger;
+    }
+
+    public List<ToolChainStep> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(List<ToolChainStep> steps) {
+        this.steps = steps != null ? new ArrayList<>(steps) : new ArrayList<>();
+    }
+}
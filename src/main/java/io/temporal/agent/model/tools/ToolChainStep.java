@@ -0,0 +1,39 @@
+package io.temporal.agent.model.tools;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One step of a {@link ToolChain}. Each entry in {@code argumentMappings} maps an argument of {@code tool} to the key
+ * in an earlier result of the chain that supplies its value; the most recent result containing the key wins.
+ */
+public class ToolChainStep implements Serializable {
+
+    private String tool;
+    private Map<String, String> argumentMappings = new HashMap<>();
+
+    public ToolChainStep() {
+    }
+
+    public ToolChainStep(String tool, Map<String, String> argumentMappings) {
+        this.tool = tool;
+        setArgumentMappings(argumentMappings);
+    }
+
+    public String getTool() {
+        return tool;
+    }
+
+    public void setTool(String tool) {
+        this.tool = tool;
+    }
+
+    public Map<String, String> getArgumentMappings() {
+        return argumentMappings;
+    }
+
+    public void setArgumentMappings(Map<String, String> argumentMappings) {
+        this.argumentMappings = argumentMappings != null ? new HashMap<>(argumentMappings) : new HashMap<>();
+    }
+}
@@ -1,6 +1,7 @@
 package io.temporal.agent.model.tools;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.temporal.agent.model.workflow.NextStep;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,6 +11,10 @@ public class ToolDefinition implements Serializable {
     private String name;
     private String description;
     private List<ToolArgument> arguments = new ArrayList<>();
+    private ToolExecutionMode executionMode = ToolExecutionMode.ACTIVITY;
+    private String responseTemplate;
+    private NextStep nextStepRule;
+    private ToolEffect effect = ToolEffect.MUTATING;
     @JsonIgnore
     private transient ToolHandler handler;
 
@@ -48,6 +53,62 @@ public class ToolDefinition implements Serializable {
         this.arguments = arguments != null ? new ArrayList<>(arguments) : new ArrayList<>();
     }
 
+    public ToolExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ToolExecutionMode executionMode) {
+        this.executionMode = executionMode != null ? executionMode : ToolExecutionMode.ACTIVITY;
+    }
+
+    /**
+     * Summary shown to the user after the tool runs, with {@code {key}} placeholders filled from the result map.
+     * Only used together with {@link #getNextStepRule()}.
+     */
+    public String getResponseTemplate() {
+        return responseTemplate;
+    }
+
+    public void setResponseTemplate(String responseTemplate) {
+        this.responseTemplate = responseTemplate;
+    }
+
+    /**
+     * Step the workflow takes after rendering {@link #getResponseTemplate()}: {@link NextStep#QUESTION} waits for the
+     * user, {@link NextStep#DONE} completes the goal.
+     */
+    public NextStep getNextStepRule() {
+        return nextStepRule;
+    }
+
+    public void setNextStepRule(NextStep nextStepRule) {
+        this.nextStepRule = nextStepRule;
+    }
+
+    public boolean hasLocalSummary() {
+        return responseTemplate != null && !responseTemplate.isBlank()
+                && (nextStepRule == NextStep.QUESTION || nextStepRule == NextStep.DONE);
+    }
+
+    /**
+     * Defaults to {@link ToolEffect#MUTATING} so tools that do not declare an effect keep the confirmation step.
+     */
+    public ToolEffect getEffect() {
+        return effect;
+    }
+
+    public void setEffect(ToolEffect effect) {
+        this.effect = effect != null ? effect : ToolEffect.MUTATING;
+    }
+
+    /**
+     * Whether the tool only reads data, which makes it safe to run speculatively before the user confirms it.
+     */
+    @JsonIgnore
+    public boolean isSideEffectFree() {
+        return effect == ToolEffect.READ_ONLY;
+    }
+
     public ToolHandler getHandler() {
         return handler;
     }
@@ -0,0 +1,13 @@
+package io.temporal.agent.model.tools;
+
+/**
+ * What running a tool does to the outside world. Drives which calls may be auto-confirmed, prefetched, or retried.
+ */
+public enum ToolEffect {
+    /** Only reads data; running it any number of times changes nothing. */
+    READ_ONLY,
+    /** Changes state, but repeating a call with the same arguments has the same effect as running it once. */
+    IDEMPOTENT,
+    /** Changes state in a way the user must approve, such as sending or creating something. */
+    MUTATING
+}
@@ -0,0 +1,30 @@
+package io.temporal.agent.model.tools;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A failed tool call reported back to the planner as an ordinary tool result. Non-retryable errors, such as an
+ * unknown order or a rejected request, are returned as results straight away. Retryable ones are first retried by the
+ * activity and only become a result once the retries are used up.
+ */
+public record ToolError(String tool, String type, String message, boolean retryable) {
+
+    public static final String INVALID_REQUEST = "invalid_request";
+    public static final String REJECTED = "rejected";
+    public static final String UNAVAILABLE = "unavailable";
+
+    public Map<String, Object> toResult() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tool", tool);
+        result.put("success", false);
+        result.put("error", message);
+        result.put("error_type", type);
+        result.put("retryable", retryable);
+        return result;
+    }
+
+    public static boolean isError(Map<String, Object> result) {
+        return result != null && Boolean.FALSE.equals(result.get("success")) && result.containsKey("error_type");
+    }
+}
@@ -0,0 +1,10 @@
+package io.temporal.agent.model.tools;
+
+/**
+ * How the workflow dispatches a tool call. {@link #LOCAL_ACTIVITY} suits cheap in-process handlers that finish well
+ * within a workflow task; anything that does network I/O or may run for a while should stay a regular activity.
+ */
+public enum ToolExecutionMode {
+    ACTIVITY,
+    LOCAL_ACTIVITY
+}
@@ -8,6 +8,8 @@ public class AgentGoalWorkflowParams implements Serializable {
 
     private String conversationSummary;
     private Deque<String> promptQueue = new ArrayDeque<>();
+    private boolean skipStarterPrompt;
+    private boolean parked;
 
     public AgentGoalWorkflowParams() {
     }
@@ -34,4 +36,27 @@ public class AgentGoalWorkflowParams implements Serializable {
     public void setPromptQueue(Deque<String> promptQueue) {
         this.promptQueue = new ArrayDeque<>(promptQueue);
     }
+
+    /**
+     * When set, the goal's starter prompt is not queued and the first user prompt is planned directly. Used when a
+     * conversation is started together with its first prompt.
+     */
+    public boolean isSkipStarterPrompt() {
+        return skipStarterPrompt;
+    }
+
+    public void setSkipStarterPrompt(boolean skipStarterPrompt) {
+        this.skipStarterPrompt = skipStarterPrompt;
+    }
+
+    /**
+     * Set on a run continued after the idle timeout. A parked run waits for the user without a deadline.
+     */
+    public boolean isParked() {
+        return parked;
+    }
+
+    public void setParked(boolean parked) {
+        this.parked = parked;
+    }
 }
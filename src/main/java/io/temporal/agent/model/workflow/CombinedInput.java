@@ -1,12 +1,15 @@
 package io.temporal.agent.model.workflow;
 
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
 import java.io.Serializable;
 
 public class CombinedInput implements Serializable {
 
     private AgentGoalWorkflowParams toolParams;
     private AgentGoal agentGoal;
+    private GoalReference goalReference;
+    private EnvLookupOutput envSettings;
 
     public CombinedInput() {
     }
@@ -16,6 +19,11 @@ public class CombinedInput implements Serializable {
         this.agentGoal = agentGoal;
     }
 
+    public CombinedInput(AgentGoalWorkflowParams toolParams, GoalReference goalReference) {
+        this.toolParams = toolParams;
+        this.goalReference = goalReference;
+    }
+
     public AgentGoalWorkflowParams getToolParams() {
         return toolParams;
     }
@@ -31,4 +39,26 @@ public class CombinedInput implements Serializable {
     public void setAgentGoal(AgentGoal agentGoal) {
         this.agentGoal = agentGoal;
     }
+
+    /**
+     * Catalog version of the goal to run. Inputs carry either this or an inline {@link #getAgentGoal() agent goal}.
+     */
+    public GoalReference getGoalReference() {
+        return goalReference;
+    }
+
+    public void setGoalReference(GoalReference goalReference) {
+        this.goalReference = goalReference;
+    }
+
+    /**
+     * Settings resolved by the starter. When absent the workflow looks them up with an activity.
+     */
+    public EnvLookupOutput getEnvSettings() {
+        return envSettings;
+    }
+
+    public void setEnvSettings(EnvLookupOutput envSettings) {
+        this.envSettings = envSettings;
+    }
 }
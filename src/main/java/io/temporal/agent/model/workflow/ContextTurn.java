@@ -0,0 +1,93 @@
+package io.temporal.agent.model.workflow;
+
+import io.temporal.agent.model.conversation.ConversationMessage;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A planner turn sent to the worker that holds the conversation's context. It carries the messages added after the
+ * first {@code baseSequence} ones. The goal context is included only when the workflow believes the host lacks it:
+ * on the first turn, after a goal change, or when resending after a cache miss.
+ */
+public class ContextTurn implements Serializable {
+
+    /** Failure type the host reports when it does not hold the context the turn builds on. */
+    public static final String CONTEXT_MISS = "PlannerContextMiss";
+
+    private String prompt;
+    private LlmCallType callType = LlmCallType.PLANNING;
+    private String goalId;
+    private int baseSequence;
+    private List<ConversationMessage> messages = new ArrayList<>();
+    private String goalContext;
+    private boolean correction;
+
+    public ContextTurn() {
+    }
+
+    public ContextTurn(String prompt, LlmCallType callType, String goalId, int baseSequence,
+                       List<ConversationMessage> messages) {
+        this.prompt = prompt;
+        setCallType(callType);
+        this.goalId = goalId;
+        this.baseSequence = baseSequence;
+        setMessages(messages);
+    }
+
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public void setPrompt(String prompt) {
+        this.prompt = prompt;
+    }
+
+    public LlmCallType getCallType() {
+        return callType;
+    }
+
+    public void setCallType(LlmCallType callType) {
+        this.callType = callType != null ? callType : LlmCallType.PLANNING;
+    }
+
+    public String getGoalId() {
+        return goalId;
+    }
+
+    public void setGoalId(String goalId) {
+        this.goalId = goalId;
+    }
+
+    public int getBaseSequence() {
+        return baseSequence;
+    }
+
+    public void setBaseSequence(int baseSequence) {
+        this.baseSequence = baseSequence;
+    }
+
+    public List<ConversationMessage> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<ConversationMessage> messages) {
+        this.messages = messages != null ? new ArrayList<>(messages) : new ArrayList<>();
+    }
+
+    public String getGoalContext() {
+        return goalContext;
+    }
+
+    public void setGoalContext(String goalContext) {
+        this.goalContext = goalContext;
+    }
+
+    public boolean isCorrection() {
+        return correction;
+    }
+
+    public void setCorrection(boolean correction) {
+        this.correction = correction;
+    }
+}
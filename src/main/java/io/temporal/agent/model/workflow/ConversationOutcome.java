@@ -0,0 +1,41 @@
+package io.temporal.agent.model.workflow;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Result of a finished conversation. The transcript itself is not included; {@code transcriptRef} points at the
+ * closed workflow's {@code conversationHistory} query, which serves it from history.
+ *
+ * @param goalId        goal the conversation ended on
+ * @param goalVersion   catalog version of that goal, or {@code null} for an inline goal
+ * @param completion    how the conversation finished
+ * @param finalResponse last reply shown to the user
+ * @param tools         per-tool call and error counts, in first-use order
+ * @param messageCount  number of messages in the transcript
+ * @param transcriptRef where the full transcript can be read
+ * @param summary       closing summary when the conversation ended because it went idle
+ */
+public record ConversationOutcome(
+        String goalId,
+        String goalVersion,
+        Completion completion,
+        String finalResponse,
+        List<ToolUsage> tools,
+        int messageCount,
+        String transcriptRef,
+        String summary) implements Serializable {
+
+    public enum Completion {
+        GOAL_COMPLETED,
+        CHAT_ENDED,
+        IDLE_ENDED
+    }
+
+    public record ToolUsage(String tool, int calls, int errors) implements Serializable {
+
+        public ToolUsage plus(ToolUsage other) {
+            return new ToolUsage(tool, calls + other.calls, errors + other.errors);
+        }
+    }
+}
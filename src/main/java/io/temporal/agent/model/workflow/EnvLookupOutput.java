@@ -6,6 +6,10 @@ public class EnvLookupOutput implements Serializable {
 
     private boolean showConfirm;
     private boolean multiGoalMode;
+    private boolean supersedePrompts = true;
+    private boolean autoConfirmSafeTools;
+    private boolean providerSessions;
+    private boolean workerAffinity;
 
     public EnvLookupOutput() {
     }
@@ -30,4 +34,36 @@ public class EnvLookupOutput implements Serializable {
     public void setMultiGoalMode(boolean multiGoalMode) {
         this.multiGoalMode = multiGoalMode;
     }
+
+    public boolean isSupersedePrompts() {
+        return supersedePrompts;
+    }
+
+    public void setSupersedePrompts(boolean supersedePrompts) {
+        this.supersedePrompts = supersedePrompts;
+    }
+
+    public boolean isAutoConfirmSafeTools() {
+        return autoConfirmSafeTools;
+    }
+
+    public void setAutoConfirmSafeTools(boolean autoConfirmSafeTools) {
+        this.autoConfirmSafeTools = autoConfirmSafeTools;
+    }
+
+    public boolean isProviderSessions() {
+        return providerSessions;
+    }
+
+    public void setProviderSessions(boolean providerSessions) {
+        this.providerSessions = providerSessions;
+    }
+
+    public boolean isWorkerAffinity() {
+        return workerAffinity;
+    }
+
+    public void setWorkerAffinity(boolean workerAffinity) {
+        this.workerAffinity = workerAffinity;
+    }
 }
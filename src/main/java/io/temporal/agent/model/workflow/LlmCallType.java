@@ -0,0 +1,7 @@
+package io.temporal.agent.model.workflow;
+
+public enum LlmCallType {
+    VALIDATION,
+    GOAL_SELECTION,
+    PLANNING
+}
@@ -4,8 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
@@ -14,6 +16,7 @@ public class ToolDecision implements Serializable {
     private NextStep next;
     private String tool;
     private Map<String, Object> args = new HashMap<>();
+    private List<ToolInvocation> tools = new ArrayList<>();
     private String response;
     private boolean forceConfirm = true;
 
@@ -32,6 +35,14 @@ public class ToolDecision implements Serializable {
         if (args instanceof Map<?, ?> map) {
             map.forEach((key, value) -> decision.args.put(String.valueOf(key), value));
         }
+        Object tools = raw.get("tools");
+        if (tools instanceof List<?> list) {
+            list.stream()
+                    .filter(Map.class::isInstance)
+                    .map(item -> ToolInvocation.fromRawMap((Map<?, ?>) item))
+                    .filter(invocation -> invocation.getTool() != null)
+                    .forEach(decision.tools::add);
+        }
         Object response = raw.get("response");
         if (response != null) {
             decision.response = response.toString();
@@ -73,6 +84,29 @@ public class ToolDecision implements Serializable {
         this.args = args != null ? new HashMap<>(args) : new HashMap<>();
     }
 
+    public List<ToolInvocation> getTools() {
+        return tools;
+    }
+
+    public void setTools(List<ToolInvocation> tools) {
+        this.tools = tools != null ? new ArrayList<>(tools) : new ArrayList<>();
+    }
+
+    /**
+     * Returns the tool calls this decision asks for: the {@code tools} list when the planner proposed independent
+     * calls to run together, otherwise the single {@code tool}/{@code args} pair.
+     */
+    @JsonIgnore
+    public List<ToolInvocation> getInvocations() {
+        if (tools != null && !tools.isEmpty()) {
+            return Collections.unmodifiableList(tools);
+        }
+        if (tool != null) {
+            return List.of(new ToolInvocation(tool, getArgsOrEmpty()));
+        }
+        return List.of();
+    }
+
     public String getResponse() {
         return response;
     }
@@ -95,6 +129,9 @@ public class ToolDecision implements Serializable {
         map.put("next", getNextValue());
         map.put("tool", tool);
         map.put("args", new HashMap<>(args));
+        if (tools != null && !tools.isEmpty()) {
+            map.put("tools", tools.stream().map(ToolInvocation::toRawMap).toList());
+        }
         map.put("response", response);
         map.put("force_confirm", forceConfirm);
         return map;
@@ -0,0 +1,63 @@
+package io.temporal.agent.model.workflow;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A single tool call carried by a {@link ToolDecision}. A decision may hold several independent invocations which
+ * the workflow runs concurrently.
+ */
+public class ToolInvocation implements Serializable {
+
+    private String tool;
+    private Map<String, Object> args = new HashMap<>();
+
+    public ToolInvocation() {
+    }
+
+    public ToolInvocation(String tool, Map<String, Object> args) {
+        this.tool = tool;
+        setArgs(args);
+    }
+
+    public static ToolInvocation fromRawMap(Map<?, ?> raw) {
+        ToolInvocation invocation = new ToolInvocation();
+        Object tool = raw.get("tool");
+        invocation.tool = tool != null ? tool.toString() : null;
+        if (raw.get("args") instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> invocation.args.put(String.valueOf(key), value));
+        }
+        return invocation;
+    }
+
+    public String getTool() {
+        return tool;
+    }
+
+    public void setTool(String tool) {
+        this.tool = tool;
+    }
+
+    public Map<String, Object> getArgs() {
+        return args;
+    }
+
+    public void setArgs(Map<String, Object> args) {
+        this.args = args != null ? new HashMap<>(args) : new HashMap<>();
+    }
+
+    @JsonIgnore
+    public Map<String, Object> getArgsOrEmpty() {
+        return args != null ? args : Collections.emptyMap();
+    }
+
+    public Map<String, Object> toRawMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("tool", tool);
+        map.put("args", new HashMap<>(getArgsOrEmpty()));
+        return map;
+    }
+}
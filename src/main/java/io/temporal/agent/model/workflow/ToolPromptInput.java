@@ -1,11 +1,24 @@
 package io.temporal.agent.model.workflow;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.temporal.agent.model.conversation.ConversationMessage;
 import java.io.Serializable;
+import java.util.List;
 
 public class ToolPromptInput implements Serializable {
 
+    /** Key under which the planner returns the provider's response id after a session turn. */
+    public static final String SESSION_RESPONSE_ID = "provider_response_id";
+
+    /** Failure type the planner reports when the provider no longer knows {@link #getPreviousResponseId()}. */
+    public static final String SESSION_NOT_FOUND = "ProviderSessionNotFound";
+
     private String prompt;
     private String contextInstructions;
+    private LlmCallType callType = LlmCallType.PLANNING;
+    private String goalId;
+    private String previousResponseId;
+    private List<ConversationMessage> sessionMessages;
 
     public ToolPromptInput() {
     }
@@ -15,6 +28,12 @@ public class ToolPromptInput implements Serializable {
         this.contextInstructions = contextInstructions;
     }
 
+    public ToolPromptInput(String prompt, String contextInstructions, LlmCallType callType, String goalId) {
+        this(prompt, contextInstructions);
+        setCallType(callType);
+        this.goalId = goalId;
+    }
+
     public String getPrompt() {
         return prompt;
     }
@@ -30,4 +49,51 @@ public class ToolPromptInput implements Serializable {
     public void setContextInstructions(String contextInstructions) {
         this.contextInstructions = contextInstructions;
     }
+
+    public LlmCallType getCallType() {
+        return callType;
+    }
+
+    public void setCallType(LlmCallType callType) {
+        this.callType = callType != null ? callType : LlmCallType.PLANNING;
+    }
+
+    public String getGoalId() {
+        return goalId;
+    }
+
+    public void setGoalId(String goalId) {
+        this.goalId = goalId;
+    }
+
+    /**
+     * Turns this into a provider-session turn. The context instructions then leave out the history, and
+     * {@code messages} holds what the provider has not seen yet: everything when {@code previousResponseId} is
+     * {@code null}, otherwise the messages added since that response.
+     */
+    public void continueSession(String previousResponseId, List<ConversationMessage> messages) {
+        this.previousResponseId = previousResponseId;
+        this.sessionMessages = messages;
+    }
+
+    @JsonIgnore
+    public boolean isSessionTurn() {
+        return sessionMessages != null;
+    }
+
+    public String getPreviousResponseId() {
+        return previousResponseId;
+    }
+
+    public void setPreviousResponseId(String previousResponseId) {
+        this.previousResponseId = previousResponseId;
+    }
+
+    public List<ConversationMessage> getSessionMessages() {
+        return sessionMessages;
+    }
+
+    public void setSessionMessages(List<ConversationMessage> sessionMessages) {
+        this.sessionMessages = sessionMessages;
+    }
 }
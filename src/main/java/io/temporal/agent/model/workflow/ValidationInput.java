@@ -2,6 +2,7 @@ package io.temporal.agent.model.workflow;
 
 import io.temporal.agent.model.conversation.ConversationHistory;
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
 import java.io.Serializable;
 
 public class ValidationInput implements Serializable {
@@ -9,6 +10,7 @@ public class ValidationInput implements Serializable {
     private String prompt;
     private ConversationHistory conversationHistory;
     private AgentGoal agentGoal;
+    private GoalReference goalReference;
 
     public ValidationInput() {
     }
@@ -19,6 +21,12 @@ public class ValidationInput implements Serializable {
         this.agentGoal = agentGoal;
     }
 
+    public ValidationInput(String prompt, ConversationHistory conversationHistory, GoalReference goalReference) {
+        this.prompt = prompt;
+        this.conversationHistory = conversationHistory;
+        this.goalReference = goalReference;
+    }
+
     public String getPrompt() {
         return prompt;
     }
@@ -42,4 +50,15 @@ public class ValidationInput implements Serializable {
     public void setAgentGoal(AgentGoal agentGoal) {
         this.agentGoal = agentGoal;
     }
+
+    /**
+     * Catalog version of the goal, sent instead of the full goal when the workflow runs a catalog goal.
+     */
+    public GoalReference getGoalReference() {
+        return goalReference;
+    }
+
+    public void setGoalReference(GoalReference goalReference) {
+        this.goalReference = goalReference;
+    }
 }
@@ -0,0 +1,122 @@
+package io.temporal.agent.payload;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed blob store on the local filesystem. Blobs are named by the SHA-256 of their content, so writes are
+ * idempotent and a reference always means the same bytes. Reads are memory-mapped. Writing or reading a blob
+ * refreshes its modification time, which {@link #deleteOlderThan(Instant)} uses for retention.
+ */
+public class BlobStore {
+
+    public static final String REFERENCE_PREFIX = "blob://sha256/";
+    public static final Pattern REFERENCE = Pattern.compile(Pattern.quote(REFERENCE_PREFIX) + "([0-9a-f]{64})");
+
+    private final Path root;
+
+    public BlobStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Stores the content if it is not already present and returns its {@code blob://sha256/...} reference.
+     */
+    public String put(byte[] content) {
+        String hash = sha256(content);
+        Path target = pathFor(hash);
+        if (Files.exists(target)) {
+            touch(target);
+        } else {
+            try {
+                Files.createDirectories(target.getParent());
+                Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+                Files.write(temp, content);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to store blob " + hash, ex);
+            }
+        }
+        return REFERENCE_PREFIX + hash;
+    }
+
+    /**
+     * Reads the blob as UTF-8 text, or returns {@code null} if it is not in this store.
+     */
+    public String read(String reference) {
+        Matcher matcher = REFERENCE.matcher(reference);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a blob reference: " + reference);
+        }
+        Path path = pathFor(matcher.group(1));
+        if (!Files.exists(path)) {
+            return null;
+        }
+        touch(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read blob " + reference, ex);
+        }
+    }
+
+    /**
+     * Deletes blobs that were last written or read before {@code cutoff} and returns how many were removed.
+     */
+    public int deleteOlderThan(Instant cutoff) {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path path : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(path).toInstant().isBefore(cutoff) && Files.deleteIfExists(path)) {
+                        deleted++;
+                    }
+                } catch (IOException ex) {
+                    // Removed or replaced concurrently; the next sweep sees it again.
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to sweep blob store " + root, ex);
+        }
+        return deleted;
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException ex) {
+            // Only affects retention; the blob itself is intact.
+        }
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package io.temporal.agent.payload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.ConversationMessage;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the bulky parts of large tool results into the {@link BlobStore} so that only references travel through
+ * workflow history. Scalar fields stay inline, which keeps tool chains, response templates and error checks working on
+ * the reduced result. References are expanded lazily, in the text sent to the LLM and in the history served to
+ * clients. The blob directory must be shared by every worker, so enabling the claim check without one is refused;
+ * blobs unused for the configured retention are swept hourly.
+ */
+@Component
+public class ClaimCheck implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClaimCheck.class);
+    private static final Pattern QUOTED_REFERENCE = Pattern.compile("\"(" + BlobStore.REFERENCE.pattern() + ")\"");
+    private static final int MIN_EXTERNALIZED_BYTES = 512;
+    private static final Duration MAX_SWEEP_INTERVAL = Duration.ofHours(1);
+
+    private final BlobStore blobStore;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int thresholdBytes;
+    private final ScheduledExecutorService sweeper;
+
+    public ClaimCheck(ClaimCheckProperties properties, ObjectMapper objectMapper) {
+        boolean configured = properties.directory() != null && !properties.directory().isBlank();
+        if (properties.enabled() && !configured) {
+            throw new IllegalStateException("agent.claim-check.enabled requires agent.claim-check.directory "
+                    + "(AGENT_BLOB_DIR) pointing at storage shared by all workers");
+        }
+        this.blobStore = configured ? new BlobStore(Path.of(properties.directory())) : null;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.enabled();
+        this.thresholdBytes = properties.thresholdBytes();
+        this.sweeper = properties.enabled() ? startSweeper(properties.retention()) : null;
+    }
+
+    /**
+     * Returns the result unchanged when it is small, otherwise a copy whose large list and map values are replaced by
+     * {@code blob://sha256/...} references.
+     */
+    public Map<String, Object> externalize(Map<String, Object> result) {
+        if (!enabled || result == null || serialize(result).length < thresholdBytes) {
+            return result;
+        }
+        Map<String, Object> reduced = new LinkedHashMap<>();
+        result.forEach((key, value) -> {
+            if (value instanceof Map<?, ?> || value instanceof Collection<?>) {
+                byte[] json = serialize(value);
+                reduced.put(key, json.length >= MIN_EXTERNALIZED_BYTES ? blobStore.put(json) : value);
+            } else {
+                reduced.put(key, value);
+            }
+        });
+        return reduced;
+    }
+
+    /**
+     * Replaces quoted blob references in JSON text with the stored JSON. References whose blob is missing are left in
+     * place.
+     */
+    public String resolve(String text) {
+        if (blobStore == null || text == null || !text.contains(BlobStore.REFERENCE_PREFIX)) {
+            return text;
+        }
+        Matcher matcher = QUOTED_REFERENCE.matcher(text);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String content = blobStore.read(matcher.group(1));
+            if (content == null) {
+                LOGGER.warn("Blob {} is not available on this worker; leaving the reference in the prompt", matcher.group(1));
+                content = matcher.group();
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(content));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * Returns a copy of the history in which tool results that reference blobs carry the stored values again. Returns
+     * the history itself when there is nothing to resolve.
+     */
+    public ConversationHistory resolveHistory(ConversationHistory history) {
+        if (blobStore == null || history == null) {
+            return history;
+        }
+        ConversationHistory resolved = new ConversationHistory();
+        history.getMessages().forEach(message -> resolved.getMessages()
+                .add(ConversationMessage.of(message.messageType(), resolveValue(message.response()))));
+        return resolved;
+    }
+
+    /**
+     * Deletes blobs that were neither written nor read within the retention period.
+     */
+    public int sweep(Duration retention) {
+        return blobStore == null ? 0 : blobStore.deleteOlderThan(Instant.now().minus(retention));
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private Object resolveValue(Object value) {
+        if (value instanceof String text && BlobStore.REFERENCE.matcher(text).matches()) {
+            String content = blobStore.read(text);
+            if (content == null) {
+                return text;
+            }
+            try {
+                return objectMapper.readValue(content, Object.class);
+            } catch (JsonProcessingException ex) {
+                LOGGER.warn("Blob {} does not contain JSON; leaving the reference in the history", text);
+                return text;
+            }
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> resolved = new LinkedHashMap<>();
+            map.forEach((key, nested) -> resolved.put(key, resolveValue(nested)));
+            return resolved;
+        }
+        if (value instanceof Collection<?> values) {
+            List<Object> resolved = new ArrayList<>(values.size());
+            values.forEach(nested -> resolved.add(resolveValue(nested)));
+            return resolved;
+        }
+        return value;
+    }
+
+    private ScheduledExecutorService startSweeper(Duration retention) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "claim-check-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = (retention.compareTo(MAX_SWEEP_INTERVAL) < 0 ? retention : MAX_SWEEP_INTERVAL).toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                int deleted = sweep(retention);
+                if (deleted > 0) {
+                    LOGGER.info("Deleted {} blobs unused for {}", deleted, retention);
+                }
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Blob sweep failed", ex);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize tool result", ex);
+        }
+    }
+}
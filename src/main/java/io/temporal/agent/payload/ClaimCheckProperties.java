@@ -0,0 +1,18 @@
+package io.temporal.agent.payload;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled        externalize large tool results; requires {@code directory}
+ * @param directory      blob store root; must be shared by all workers that can run the planner activity
+ * @param thresholdBytes serialized result size from which large values are moved to the blob store
+ * @param retention      blobs not written or read for this long are deleted
+ */
+@ConfigurationProperties(prefix = "agent.claim-check")
+public record ClaimCheckProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("") String directory,
+        @DefaultValue("16384") int thresholdBytes,
+        @DefaultValue("7d") Duration retention) {}
@@ -0,0 +1,104 @@
+package io.temporal.agent.payload;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * Compresses payloads of at least {@code thresholdBytes} with LZ4. The whole serialized payload, metadata included, is
+ * compressed and wrapped in a payload with encoding {@value #ENCODING}. Payloads without that encoding are passed
+ * through on decode, so histories written before the codec was enabled stay readable. Decoding uses the bounds-checked
+ * decompressor and rejects declared sizes that the compressed data cannot produce, so a corrupt or hostile payload
+ * cannot force a large allocation or a read past the buffer.
+ */
+public class Lz4PayloadCodec implements PayloadCodec {
+
+    public static final String ENCODING = "binary/lz4";
+
+    private static final ByteString ENCODING_VALUE = ByteString.copyFromUtf8(ENCODING);
+    private static final int MAX_DECOMPRESSED_BYTES = 64 * 1024 * 1024;
+    // LZ4 cannot expand input by more than 255x, plus a few bytes of framing.
+    private static final int MAX_EXPANSION = 255;
+
+    private final int thresholdBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    public Lz4PayloadCodec(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    public List<Payload> encode(List<Payload> payloads) {
+        return payloads.stream().map(this::encode).toList();
+    }
+
+    @Override
+    public List<Payload> decode(List<Payload> payloads) {
+        return payloads.stream().map(this::decode).toList();
+    }
+
+    private Payload encode(Payload payload) {
+        int size = payload.getSerializedSize();
+        if (size < thresholdBytes || isCompressed(payload)) {
+            return payload;
+        }
+        byte[] original = payload.toByteArray();
+        byte[] buffer = new byte[Integer.BYTES + compressor.maxCompressedLength(original.length)];
+        ByteBuffer.wrap(buffer).putInt(original.length);
+        int compressedLength = compressor.compress(original, 0, original.length, buffer, Integer.BYTES);
+        if (Integer.BYTES + compressedLength >= size) {
+            return payload;
+        }
+        return Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING_VALUE)
+                .setData(ByteString.copyFrom(buffer, 0, Integer.BYTES + compressedLength))
+                .build();
+    }
+
+    private Payload decode(Payload payload) {
+        if (!isCompressed(payload)) {
+            return payload;
+        }
+        ByteBuffer data = payload.getData().asReadOnlyByteBuffer();
+        if (data.remaining() < Integer.BYTES) {
+            throw new PayloadCodecException("Truncated LZ4 payload of " + data.remaining() + " bytes");
+        }
+        int declaredLength = data.getInt();
+        byte[] compressed = new byte[data.remaining()];
+        data.get(compressed);
+        long maxLength = Math.min(MAX_DECOMPRESSED_BYTES, (long) compressed.length * MAX_EXPANSION + 16);
+        if (declaredLength < 0 || declaredLength > maxLength) {
+            throw new PayloadCodecException("LZ4 payload declares " + declaredLength + " bytes from "
+                    + compressed.length + " compressed bytes; the limit is " + maxLength);
+        }
+        byte[] original = new byte[declaredLength];
+        try {
+            int length = decompressor.decompress(compressed, 0, compressed.length, original, 0, declaredLength);
+            if (length != declaredLength) {
+                throw new PayloadCodecException("LZ4 payload decompressed to " + length + " bytes, expected "
+                        + declaredLength);
+            }
+            return Payload.parseFrom(original);
+        } catch (PayloadCodecException ex) {
+            throw ex;
+        } catch (InvalidProtocolBufferException | RuntimeException ex) {
+            throw new PayloadCodecException("Unable to decompress LZ4 payload", ex);
+        }
+    }
+
+    private static boolean isCompressed(Payload payload) {
+        return ENCODING_VALUE.equals(payload.getMetadataMap().get(EncodingKeys.METADATA_ENCODING_KEY));
+    }
+}
@@ -0,0 +1,103 @@
+package io.temporal.agent.payload;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverterException;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.converter.JacksonJsonPayloadConverter;
+import io.temporal.common.converter.PayloadConverter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes the agent model types and raw tool maps as Jackson Smile, tagged with encoding {@value #ENCODING}. Strings
+ * and other values fall through to the JSON converter, so they stay readable in the Temporal UI. Decoding is chosen
+ * by each payload's encoding, so histories written as JSON keep replaying after this converter is enabled. A converter
+ * created with writing turned off still decodes Smile, so workers can roll back or mix settings.
+ */
+public class SmilePayloadConverter implements PayloadConverter {
+
+    public static final String ENCODING = "binary/smile";
+
+    private static final ByteString ENCODING_VALUE = ByteString.copyFromUtf8(ENCODING);
+    private static final String MODEL_PACKAGE = "io.temporal.agent.model.";
+
+    // Same modules and feature flags as the SDK's JSON mapper, so both encodings read and write the same shapes.
+    private final ObjectMapper mapper = JacksonJsonPayloadConverter.newDefaultObjectMapper()
+            .copyWith(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+    private final boolean writeSmile;
+
+    public SmilePayloadConverter() {
+        this(true);
+    }
+
+    /**
+     * @param writeSmile whether values are written as Smile; when {@code false} they are left to the JSON converter
+     */
+    public SmilePayloadConverter(boolean writeSmile) {
+        this.writeSmile = writeSmile;
+    }
+
+    /**
+     * The SDK's standard converters with this one placed ahead of the JSON converter, which would otherwise accept
+     * every value first.
+     */
+    public static PayloadConverter[] withStandardConverters(boolean writeSmile) {
+        List<PayloadConverter> converters = new ArrayList<>();
+        for (PayloadConverter converter : DefaultDataConverter.STANDARD_PAYLOAD_CONVERTERS) {
+            if (converter instanceof JacksonJsonPayloadConverter) {
+                converters.add(new SmilePayloadConverter(writeSmile));
+            }
+            converters.add(converter);
+        }
+        return converters.toArray(PayloadConverter[]::new);
+    }
+
+    @Override
+    public String getEncodingType() {
+        return ENCODING;
+    }
+
+    @Override
+    public Optional<Payload> toData(Object value) throws DataConverterException {
+        if (!writeSmile || !isBinaryCandidate(value)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Payload.newBuilder()
+                    .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING_VALUE)
+                    .setData(ByteString.copyFrom(mapper.writeValueAsBytes(value)))
+                    .build());
+        } catch (IOException ex) {
+            throw new DataConverterException(ex);
+        }
+    }
+
+    @Override
+    public <T> T fromData(Payload content, Class<T> valueClass, Type valueType) throws DataConverterException {
+        try {
+            JavaType javaType = mapper.getTypeFactory().constructType(valueType);
+            return mapper.readValue(content.getData().newInput(), javaType);
+        } catch (IOException ex) {
+            throw new DataConverterException(ex);
+        }
+    }
+
+    private static boolean isBinaryCandidate(Object value) {
+        return value instanceof Map<?, ?>
+                || value instanceof Collection<?>
+                || value != null && value.getClass().getName().startsWith(MODEL_PACKAGE);
+    }
+}
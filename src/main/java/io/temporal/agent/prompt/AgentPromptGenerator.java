@@ -1,21 +1,26 @@
 package io.temporal.agent.prompt;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.temporal.agent.json.AgentJson;
 import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.ConversationMessage;
+import io.temporal.agent.model.conversation.MessageType;
 import io.temporal.agent.model.tools.AgentGoal;
 import io.temporal.agent.model.tools.ToolArgument;
 import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolError;
 import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.model.workflow.ToolInvocation;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public final class AgentPromptGenerator {
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final Pattern TEMPLATE_PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_]+)}");
 
     private AgentPromptGenerator() {
     }
@@ -26,6 +31,13 @@ public final class AgentPromptGenerator {
             boolean multiGoalMode,
             ToolDecision rawJson,
             Map<String, Object> mcpToolsInfo) {
+        return assembleGenAiPrompt(history, generateGoalContext(goal, mcpToolsInfo), rawJson != null);
+    }
+
+    /**
+     * Joins the planner prompt from its parts. A {@code null} history means the provider session holds it.
+     */
+    public static String assembleGenAiPrompt(ConversationHistory history, String goalContext, boolean correction) {
         List<String> lines = new ArrayList<>();
         lines.add("You are an AI agent that helps fill required arguments for the tools described below. "
                 + "CRITICAL: You must respond with ONLY valid JSON using the exact schema provided. "
@@ -33,11 +45,34 @@ public final class AgentPromptGenerator {
 
         lines.add("=== Conversation History ===");
         lines.add("This is the ongoing history to determine which tool and arguments to gather:");
-        lines.add("*BEGIN CONVERSATION HISTORY*");
-        lines.add(prettyPrint(history));
-        lines.add("*END CONVERSATION HISTORY*");
+        if (history != null) {
+            lines.add("*BEGIN CONVERSATION HISTORY*");
+            lines.add(prettyPrint(history));
+            lines.add("*END CONVERSATION HISTORY*");
+        } else {
+            lines.add("The conversation history is kept in this session. Messages added since your last response "
+                    + "arrive with the user's input.");
+        }
         lines.add("REMINDER: You can use the conversation history to infer arguments for the tools.");
 
+        lines.add(goalContext);
+
+        lines.add("=== FINAL REMINDER ===");
+        if (correction) {
+            lines.add("Validate the provided JSON and return ONLY corrected JSON.");
+        } else {
+            lines.add("Return ONLY a valid JSON response. Start with '{' and end with '}'.");
+        }
+
+        return String.join("\n", lines);
+    }
+
+    /**
+     * The part of the planner prompt that only changes with the goal and its MCP tools, so it can be rendered once
+     * per goal and reused across turns.
+     */
+    public static String generateGoalContext(AgentGoal goal, Map<String, Object> mcpToolsInfo) {
+        List<String> lines = new ArrayList<>();
         lines.add("=== Agent Persona & Style ===");
         String agentName = Objects.toString(goal.getAgentName(), "Assistant");
         lines.add("You are \"" + agentName + "\".");
@@ -101,6 +136,9 @@ public final class AgentPromptGenerator {
         }
 
         lines.add("When all required args for a tool are known, you can propose next='confirm' to run it.");
+        lines.add("If several tool calls are needed that do not depend on each other's results (for example the same tool for several orders), "
+                + "propose them together: set next='confirm', tool=null, and list each call in 'tools' as {\"tool\": \"<tool_name>\", \"args\": { ... }}. "
+                + "They will run at the same time and you will receive all results at once.");
 
         lines.add("=== CRITICAL: JSON-ONLY RESPONSE FORMAT ===");
         lines.add("MANDATORY: Your response must be ONLY valid JSON with NO additional text.\n"
@@ -114,8 +152,11 @@ public final class AgentPromptGenerator {
                 + "  \"args\": {\n"
                 + "    \"<arg1>\": \"<value1 or null>\",\n"
                 + "    \"<arg2>\": \"<value2 or null>\"\n"
-                + "  }\n"
-                + "}");
+                + "  },\n"
+                + "  \"tools\": [ { \"tool\": \"<tool_name>\", \"args\": { ... } } ]  (optional, only for independent parallel calls)\n"
+                + "}\n"
+                + "Use either 'tool'/'args' for a single call or 'tools' for several calls, never both: when 'tools' has entries, "
+                + "set tool=null and args={}, because only the 'tools' list is run and shown to the user for confirmation.");
 
         lines.add("DECISION LOGIC (follow this exact order):\n"
                 + "1) Do I need to run a tool next?\n"
@@ -148,13 +189,6 @@ public final class AgentPromptGenerator {
                 + "WRONG: response='adding pizza', next='question', tool='create_invoice_item'\n"
                 + "RIGHT: response='adding pizza', next='confirm', tool='create_invoice_item'");
 
-        lines.add("=== FINAL REMINDER ===");
-        if (rawJson != null) {
-            lines.add("Validate the provided JSON and return ONLY corrected JSON.");
-        } else {
-            lines.add("Return ONLY a valid JSON response. Start with '{' and end with '}'.");
-        }
-
         return String.join("\n", lines);
     }
 
@@ -167,6 +201,21 @@ public final class AgentPromptGenerator {
                 + "Respond with JSON using the schema {\"response\": \"<text>\", \"next\": \"question\", \"tool\": null, \"args\": { ... }}.";
     }
 
+    public static String generateInvalidArgsPrompt(String toolName, List<String> errors) {
+        StringJoiner joiner = new StringJoiner("; ");
+        errors.forEach(joiner::add);
+        return "### The tool '" + toolName + "' has invalid args: " + joiner + ". "
+                + "If you can correct them from the conversation history, propose the tool again with fixed args; otherwise ask the user in one short, friendly question for the correct details. "
+                + "Keep the language natural and avoid referencing the JSON schema. "
+                + "Respond with JSON using the schema {\"response\": \"<text>\", \"next\": \"<question|confirm>\", \"tool\": \"<tool_name or null>\", \"args\": { ... }}.";
+    }
+
+    public static String generateToolErrorPrompt(String toolName, Map<String, Object> error) {
+        return "### The '" + toolName + "' tool failed with " + prettyPrint(error) + ". "
+                + toolErrorGuidance(error)
+                + "{" + "\"next\": \"<question|confirm|pick-new-goal|done>\", \"tool\": \"<tool_name or null>\", \"args\": {\"<arg1>\": \"<value1 or null>\", \"<arg2>\": \"<value2 or null>\"}, \"response\": \"<plain text>\"}";
+    }
+
     public static String generateToolCompletionPrompt(String toolName, Map<String, Object> result) {
         return "### The '" + toolName + "' tool completed successfully with " + prettyPrint(result) + ". "
                 + "INSTRUCTIONS: Summarize the outcome in clear everyday language, then decide the next best step using the system prompt containing the list of tools in sequence and the conversation history (and previous tool_results). "
@@ -174,12 +223,115 @@ public final class AgentPromptGenerator {
                 + "{" + "\"next\": \"<question|confirm|pick-new-goal|done>\", \"tool\": \"<tool_name or null>\", \"args\": {\"<arg1>\": \"<value1 or null>\", \"<arg2>\": \"<value2 or null>\"}, \"response\": \"<plain text>\"}";
     }
 
-    private static String prettyPrint(Object value) {
-        try {
-            return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(value);
-        } catch (JsonProcessingException e) {
-            return String.valueOf(value);
+    /**
+     * Fills the {@code {key}} placeholders of a tool's response template from its result. Returns {@code null} when a
+     * placeholder has no value so the caller can fall back to an LLM-written summary.
+     */
+    public static String renderToolResponse(String template, Map<String, Object> result) {
+        Matcher matcher = TEMPLATE_PLACEHOLDER.matcher(template);
+        StringBuilder rendered = new StringBuilder();
+        while (matcher.find()) {
+            Object value = result != null ? result.get(matcher.group(1)) : null;
+            if (value == null) {
+                return null;
+            }
+            matcher.appendReplacement(rendered, Matcher.quoteReplacement(value.toString()));
+        }
+        matcher.appendTail(rendered);
+        return rendered.toString();
+    }
+
+    /**
+     * Builds the closing summary for a conversation that went idle, without an LLM call. It is what a parked run
+     * keeps, so it carries the earlier summary forward along with the last user requests, the tools run and the last
+     * reply.
+     */
+    public static String generateIdleSummary(AgentGoal goal,
+                                             String previousSummary,
+                                             ConversationHistory history,
+                                             List<String> toolsRun) {
+        List<String> userPrompts = new ArrayList<>();
+        String lastReply = null;
+        for (ConversationMessage message : history.getMessages()) {
+            if (message.messageType() == MessageType.USER) {
+                userPrompts.add(String.valueOf(message.response()));
+            } else if (message.messageType() == MessageType.AGENT && message.response() instanceof Map<?, ?> response
+                    && response.get("response") != null) {
+                lastReply = response.get("response").toString();
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("Conversation with " + Objects.toString(goal.getAgentName(), goal.getId()) + " went idle.");
+        if (previousSummary != null && !previousSummary.isBlank()) {
+            lines.add("Earlier: " + previousSummary);
+        }
+        if (!userPrompts.isEmpty()) {
+            lines.add("User asked: " + String.join(" | ",
+                    userPrompts.subList(Math.max(0, userPrompts.size() - 3), userPrompts.size())));
+        }
+        if (!toolsRun.isEmpty()) {
+            lines.add("Tools run: " + String.join(", ", toolsRun));
+        }
+        if (lastReply != null) {
+            lines.add("Last reply: " + lastReply);
+        }
+        return String.join("\n", lines);
+    }
+
+    public static String generateParallelToolCompletionPrompt(List<ToolInvocation> invocations, List<Map<String, Object>> results) {
+        List<String> lines = new ArrayList<>();
+        long failed = results.stream().filter(ToolError::isError).count();
+        if (failed == 0) {
+            lines.add("### " + invocations.size() + " tool calls completed successfully:");
+        } else if (failed == results.size()) {
+            lines.add("### " + invocations.size() + " tool calls failed:");
+        } else {
+            lines.add("### " + invocations.size() + " tool calls finished; " + (results.size() - failed)
+                    + " completed successfully and " + failed + " failed:");
         }
+        appendToolResults(lines, invocations, results);
+        lines.add(multiToolInstructions());
+        return String.join("\n", lines);
+    }
+
+    public static String generateToolChainCompletionPrompt(List<ToolInvocation> invocations,
+                                                           List<Map<String, Object>> results,
+                                                           String stopReason) {
+        List<String> lines = new ArrayList<>();
+        lines.add("### The '" + invocations.get(0).getTool() + "' tool completed successfully and its follow-up steps ran automatically:");
+        appendToolResults(lines, invocations, results);
+        if (stopReason != null) {
+            lines.add("The remaining steps were not run: " + stopReason + ". Explain briefly what this means for the user.");
+        }
+        lines.add(multiToolInstructions());
+        return String.join("\n", lines);
+    }
+
+    private static void appendToolResults(List<String> lines, List<ToolInvocation> invocations, List<Map<String, Object>> results) {
+        for (int i = 0; i < results.size(); i++) {
+            ToolInvocation invocation = invocations.get(i);
+            Map<String, Object> result = results.get(i);
+            String call = "- '" + invocation.getTool() + "' with args " + prettyPrint(invocation.getArgsOrEmpty());
+            lines.add(ToolError.isError(result)
+                    ? call + " failed with " + prettyPrint(result) + ". " + toolErrorGuidance(result).trim()
+                    : call + " returned " + prettyPrint(result));
+        }
+    }
+
+    private static String toolErrorGuidance(Map<String, Object> error) {
+        return Boolean.TRUE.equals(error.get("retryable"))
+                ? "The service is temporarily unavailable; apologize briefly and offer to try again shortly. "
+                : "Running it again with the same args will fail the same way; explain the problem in everyday language and ask the user for corrected details if that would help. ";
+    }
+
+    private static String multiToolInstructions() {
+        return "INSTRUCTIONS: Summarize all of these outcomes together in clear everyday language, then decide the next best step using the system prompt containing the list of tools in sequence and the conversation history (and previous tool_results). "
+                + "Use the tool_results to auto-fill arguments for subsequent tools and to verify whether every required tool has already run. "
+                + "{" + "\"next\": \"<question|confirm|pick-new-goal|done>\", \"tool\": \"<tool_name or null>\", \"args\": {\"<arg1>\": \"<value1 or null>\", \"<arg2>\": \"<value2 or null>\"}, \"response\": \"<plain text>\"}";
+    }
+
+    private static String prettyPrint(Object value) {
+        return AgentJson.toPrettyJson(value);
     }
 
     private static String generateToolchainCompleteGuidance() {
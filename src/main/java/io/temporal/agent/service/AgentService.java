@@ -3,13 +3,18 @@ package io.temporal.agent.service;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.temporal.agent.config.TemporalProperties;
+import io.temporal.agent.config.WorkflowEnvSettings;
+import io.temporal.agent.goals.GoalCatalog;
 import io.temporal.agent.goals.GoalRegistry;
 import io.temporal.agent.model.conversation.ConversationHistory;
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
 import io.temporal.agent.model.workflow.AgentGoalWorkflowParams;
 import io.temporal.agent.model.workflow.CombinedInput;
 import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.payload.ClaimCheck;
 import io.temporal.agent.workflow.AgentGoalWorkflow;
+import io.temporal.client.BatchRequest;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowNotFoundException;
 import io.temporal.client.WorkflowOptions;
@@ -27,29 +32,43 @@ public class AgentService {
     private final WorkflowClient workflowClient;
     private final TemporalProperties properties;
     private final GoalRegistry goalRegistry;
+    private final GoalCatalog goalCatalog;
+    private final ClaimCheck claimCheck;
 
-    public AgentService(WorkflowClient workflowClient, TemporalProperties properties, GoalRegistry goalRegistry) {
+    public AgentService(WorkflowClient workflowClient, TemporalProperties properties, GoalRegistry goalRegistry,
+                        GoalCatalog goalCatalog, ClaimCheck claimCheck) {
         this.workflowClient = workflowClient;
         this.properties = properties;
         this.goalRegistry = goalRegistry;
+        this.goalCatalog = goalCatalog;
+        this.claimCheck = claimCheck;
     }
 
     public String startConversation(String workflowId, String goalId) {
-        AgentGoal goal = resolveInitialGoal(goalId);
-        AgentGoalWorkflowParams params = new AgentGoalWorkflowParams();
-        CombinedInput input = new CombinedInput(params, goal);
-
-        WorkflowOptions options = WorkflowOptions.newBuilder()
-                .setWorkflowId(workflowId != null ? workflowId : UUID.randomUUID().toString())
-                .setTaskQueue(properties.taskQueue())
-                .build();
-
-        AgentGoalWorkflow workflow = workflowClient.newWorkflowStub(AgentGoalWorkflow.class, options);
+        AgentGoalWorkflow workflow = workflowClient.newWorkflowStub(AgentGoalWorkflow.class,
+                workflowOptions(workflowId).setDisableEagerExecution(!properties.eagerStart()).build());
         WorkflowStub untyped = WorkflowStub.fromTyped(workflow);
-        WorkflowClient.start(workflow::run, input);
+        WorkflowClient.start(workflow::run, conversationInput(goalId, false));
         return untyped.getExecution().getWorkflowId();
     }
 
+    /**
+     * Starts a conversation and delivers its first prompt in a single signal-with-start call. With
+     * {@code skipGreeting} the goal's starter prompt is not run and the prompt is planned as the first turn.
+     */
+    public String startConversationWithPrompt(String workflowId, String goalId, String prompt, boolean skipGreeting) {
+        CombinedInput input = conversationInput(goalId, skipGreeting);
+        AgentGoalWorkflow workflow = workflowClient.newWorkflowStub(AgentGoalWorkflow.class,
+                workflowOptions(workflowId).build());
+        BatchRequest request = workflowClient.newSignalWithStartRequest();
+        request.add(workflow::run, input);
+        request.add(workflow::submitUserPrompt, prompt);
+        return workflowClient.signalWithStart(request).getWorkflowId();
+    }
+
+    /**
+     * Signals the prompt. When the conversation's queue is full the workflow drops it and says so in the conversation.
+     */
     public void sendPrompt(String workflowId, String prompt) {
         withWorkflow(workflowId, workflow -> {
             workflow.submitUserPrompt(prompt);
@@ -72,15 +91,15 @@ public class AgentService {
     }
 
     public void selectGoal(String workflowId, String goalId) {
-        AgentGoal goal = resolveGoal(goalId);
+        GoalReference reference = goalCatalog.reference(resolveGoal(goalId));
         withWorkflow(workflowId, workflow -> {
-            workflow.selectGoal(goal);
+            workflow.selectGoalReference(reference);
             return null;
         });
     }
 
     public ConversationHistory getHistory(String workflowId) {
-        return withWorkflow(workflowId, AgentGoalWorkflow::getConversationHistory);
+        return claimCheck.resolveHistory(withWorkflow(workflowId, AgentGoalWorkflow::getConversationHistory));
     }
 
     public ToolDecision getToolDecision(String workflowId) {
@@ -95,6 +114,21 @@ public class AgentService {
         return goalRegistry.listGoals();
     }
 
+    private CombinedInput conversationInput(String goalId, boolean skipStarterPrompt) {
+        AgentGoalWorkflowParams params = new AgentGoalWorkflowParams();
+        params.setSkipStarterPrompt(skipStarterPrompt);
+        AgentGoal goal = resolveInitialGoal(goalId);
+        CombinedInput input = new CombinedInput(params, goalCatalog.reference(goal));
+        input.setEnvSettings(WorkflowEnvSettings.resolve(WorkflowEnvSettings.DEFAULT_LOOKUP));
+        return input;
+    }
+
+    private WorkflowOptions.Builder workflowOptions(String workflowId) {
+        return WorkflowOptions.newBuilder()
+                .setWorkflowId(workflowId != null ? workflowId : UUID.randomUUID().toString())
+                .setTaskQueue(properties.taskQueue());
+    }
+
     private AgentGoal resolveGoal(String goalId) {
         AgentGoal goal = goalRegistry.findGoal(goalId);
         if (goal == null) {
@@ -0,0 +1,67 @@
+package io.temporal.agent.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process side channel that carries partial agent response text from the planner activity to clients
+ * subscribed to a conversation. Events are best effort; the workflow history remains the source of truth.
+ */
+@Component
+public class ResponseStreamBroker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseStreamBroker.class);
+
+    private final Map<String, List<Consumer<ResponseStreamEvent>>> subscribers = new ConcurrentHashMap<>();
+
+    public Runnable subscribe(String workflowId, Consumer<ResponseStreamEvent> listener) {
+        subscribers.computeIfAbsent(workflowId, id -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> subscribers.computeIfPresent(workflowId, (id, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    public boolean hasSubscribers(String workflowId) {
+        return workflowId != null && subscribers.containsKey(workflowId);
+    }
+
+    public void start(String workflowId) {
+        publish(workflowId, new ResponseStreamEvent(ResponseStreamEvent.START, ""));
+    }
+
+    public void delta(String workflowId, String text) {
+        publish(workflowId, new ResponseStreamEvent(ResponseStreamEvent.DELTA, text));
+    }
+
+    public void end(String workflowId) {
+        publish(workflowId, new ResponseStreamEvent(ResponseStreamEvent.END, ""));
+    }
+
+    private void publish(String workflowId, ResponseStreamEvent event) {
+        List<Consumer<ResponseStreamEvent>> listeners = workflowId != null ? subscribers.get(workflowId) : null;
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<ResponseStreamEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException ex) {
+                LOGGER.debug("Dropping response stream listener for {}: {}", workflowId, ex.getMessage());
+                listeners.remove(listener);
+            }
+        }
+    }
+
+    public record ResponseStreamEvent(String type, String text) {
+        public static final String START = "start";
+        public static final String DELTA = "delta";
+        public static final String END = "end";
+    }
+}
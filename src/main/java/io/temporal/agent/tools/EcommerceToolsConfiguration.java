@@ -2,6 +2,9 @@ package io.temporal.agent.tools;
 
 import io.temporal.agent.model.tools.ToolArgument;
 import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolEffect;
+import io.temporal.agent.model.tools.ToolExecutionMode;
+import io.temporal.agent.model.workflow.NextStep;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,9 +22,17 @@ public class EcommerceToolsConfiguration {
 
     public EcommerceToolsConfiguration(ToolRegistry toolRegistry) {
         seedData();
-        toolRegistry.register(createListOrdersTool(), this::listOrders);
-        toolRegistry.register(createGetOrderTool(), this::getOrder);
-        toolRegistry.register(createTrackPackageTool(), this::trackPackage);
+        toolRegistry.register(local(createListOrdersTool()), this::listOrders);
+        toolRegistry.register(local(createGetOrderTool()), this::getOrder);
+        toolRegistry.register(local(createTrackPackageTool()), this::trackPackage);
+    }
+
+    // The demo data lives in memory, so these read-only lookups skip the activity round trip through the server and
+    // may be prefetched or auto-confirmed.
+    private static ToolDefinition local(ToolDefinition definition) {
+        definition.setExecutionMode(ToolExecutionMode.LOCAL_ACTIVITY);
+        definition.setEffect(ToolEffect.READ_ONLY);
+        return definition;
     }
 
     private void seedData() {
@@ -39,8 +50,10 @@ public class EcommerceToolsConfiguration {
     }
 
     private ToolDefinition createListOrdersTool() {
+        ToolArgument email = new ToolArgument("email", "string", "Email address for the customer whose orders to return");
+        email.setFormat("email");
         List<ToolArgument> args = List.of(
-                new ToolArgument("email", "string", "Email address for the customer whose orders to return"),
+                email,
                 new ToolArgument("limit", "number", "Maximum number of results to return. Defaults to 20."));
         return new ToolDefinition("ListOrders", "List a customer's past orders", args);
     }
@@ -64,7 +77,11 @@ public class EcommerceToolsConfiguration {
     private ToolDefinition createGetOrderTool() {
         List<ToolArgument> args = List.of(
                 new ToolArgument("order_id", "string", "Identifier for the order to retrieve"));
-        return new ToolDefinition("GetOrder", "Fetch a specific order by id", args);
+        ToolDefinition definition = new ToolDefinition("GetOrder", "Fetch a specific order by id", args);
+        definition.setResponseTemplate("Order {id} ({summary}) is currently {status}, last updated on {last_order_update}. "
+                + "Is there anything else you'd like to know about it?");
+        definition.setNextStepRule(NextStep.QUESTION);
+        return definition;
     }
 
     private Map<String, Object> getOrder(Map<String, Object> args) {
@@ -79,7 +96,11 @@ public class EcommerceToolsConfiguration {
     private ToolDefinition createTrackPackageTool() {
         List<ToolArgument> args = List.of(
                 new ToolArgument("tracking_id", "string", "Tracking identifier for the package"));
-        return new ToolDefinition("TrackPackage", "Track the shipment associated with an order", args);
+        ToolDefinition definition = new ToolDefinition("TrackPackage", "Track the shipment associated with an order", args);
+        definition.setResponseTemplate("Your {carrier} package is scheduled to arrive on {scheduled_delivery_date}. "
+                + "Latest update: {status_summary} You can follow it here: {tracking_link}");
+        definition.setNextStepRule(NextStep.QUESTION);
+        return definition;
     }
 
     private Map<String, Object> trackPackage(Map<String, Object> args) {
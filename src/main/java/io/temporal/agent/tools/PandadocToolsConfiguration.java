@@ -2,6 +2,7 @@ package io.temporal.agent.tools;
 
 import io.temporal.agent.model.tools.ToolArgument;
 import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolEffect;
 import io.temporal.agent.tools.pandadoc.PandadocClient;
 import io.temporal.agent.tools.pandadoc.PandadocClient.CreateDocumentRequest;
 import io.temporal.agent.tools.pandadoc.PandadocClient.Document;
@@ -32,15 +33,17 @@ public class PandadocToolsConfiguration {
     private ToolDefinition listTemplatesDefinition() {
         List<ToolArgument> args = List.of(
                 new ToolArgument("search", "string", "Optional search string to filter templates by name"));
-        return new ToolDefinition("ListPandadocTemplates", "List available PandaDoc templates", args);
+        return withEffect(new ToolDefinition("ListPandadocTemplates", "List available PandaDoc templates", args), ToolEffect.READ_ONLY);
     }
 
     private ToolDefinition createDocumentDefinition() {
+        ToolArgument signers = new ToolArgument("signers", "array", "Array of signer objects with email, role, and optional name");
+        signers.setItemFields(List.of("email", "role"));
         List<ToolArgument> args = List.of(
                 new ToolArgument("template_id", "string", "Exact PandaDoc template UUID to use"),
                 new ToolArgument("template_name", "string", "Template name if the UUID is unknown"),
                 new ToolArgument("document_name", "string", "Name for the generated document"),
-                new ToolArgument("signers", "array", "Array of signer objects with email, role, and optional name"),
+                signers,
                 new ToolArgument("tokens", "object", "Map of template token values keyed by token name"),
                 new ToolArgument("email_subject", "string", "Optional subject used when emailing the document"),
                 new ToolArgument("email_message", "string", "Optional body used when emailing the document"),
@@ -60,7 +63,13 @@ public class PandadocToolsConfiguration {
     private ToolDefinition getDocumentDefinition() {
         List<ToolArgument> args = List.of(
                 new ToolArgument("document_id", "string", "Identifier of the PandaDoc document to inspect"));
-        return new ToolDefinition("GetPandadocDocumentStatus", "Fetch the latest PandaDoc document status", args);
+        return withEffect(new ToolDefinition("GetPandadocDocumentStatus", "Fetch the latest PandaDoc document status", args), ToolEffect.READ_ONLY);
+    }
+
+    // Creating and sending documents keep the default MUTATING effect so they always ask for confirmation.
+    private static ToolDefinition withEffect(ToolDefinition definition, ToolEffect effect) {
+        definition.setEffect(effect);
+        return definition;
     }
 
     private Map<String, Object> listTemplates(Map<String, Object> args) {
@@ -0,0 +1,20 @@
+package io.temporal.agent.tools;
+
+import io.temporal.agent.model.tools.ToolError;
+
+/**
+ * Thrown by {@link ToolRegistry#execute} for transient failures so the activity's retry policy can run the tool again.
+ */
+public class ToolExecutionException extends RuntimeException {
+
+    private final transient ToolError error;
+
+    public ToolExecutionException(ToolError error, Throwable cause) {
+        super(error.message(), cause);
+        this.error = error;
+    }
+
+    public ToolError getError() {
+        return error;
+    }
+}
@@ -1,12 +1,14 @@
 package io.temporal.agent.tools;
 
 import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolError;
 import io.temporal.agent.model.tools.ToolHandler;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 
 @Component
 public class ToolRegistry {
@@ -22,16 +24,41 @@ public class ToolRegistry {
         return definitions.get(name);
     }
 
+    /**
+     * Runs a tool. Business errors (bad arguments, unknown records, requests the remote API rejects) come back as a
+     * {@link ToolError} result the planner can act on; transient failures are thrown as
+     * {@link ToolExecutionException} so the caller can retry.
+     */
     public Map<String, Object> execute(String name, Map<String, Object> arguments) {
         ToolDefinition definition = get(name);
         if (definition == null || definition.getHandler() == null) {
-            throw new IllegalArgumentException("Unknown tool: " + name);
+            return new ToolError(name, ToolError.INVALID_REQUEST, "Unknown tool: " + name, false).toResult();
         }
         Map<String, Object> safeArgs = arguments != null ? arguments : Collections.emptyMap();
-        return definition.getHandler().execute(safeArgs);
+        try {
+            return definition.getHandler().execute(safeArgs);
+        } catch (RuntimeException e) {
+            ToolError error = classify(name, e);
+            if (error.retryable()) {
+                throw new ToolExecutionException(error, e);
+            }
+            return error.toResult();
+        }
     }
 
     public Collection<ToolDefinition> list() {
         return definitions.values();
     }
+
+    private static ToolError classify(String name, RuntimeException e) {
+        if (e instanceof IllegalArgumentException) {
+            return new ToolError(name, ToolError.INVALID_REQUEST, e.getMessage(), false);
+        }
+        if (e instanceof HttpClientErrorException clientError
+                && clientError.getStatusCode().value() != 408
+                && clientError.getStatusCode().value() != 429) {
+            return new ToolError(name, ToolError.REJECTED, clientError.getStatusText(), false);
+        }
+        return new ToolError(name, ToolError.UNAVAILABLE, e.getMessage(), true);
+    }
 }
@@ -0,0 +1,162 @@
+package io.temporal.agent.tools.validation;
+
+import io.temporal.agent.model.tools.ToolArgument;
+import io.temporal.agent.model.tools.ToolDefinition;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Validators compiled once from a tool's {@link ToolArgument} declarations. {@link #validate(Map)} checks the values
+ * the planner supplied and coerces them to the declared types (numeric strings to numbers, a single object to a
+ * one-element array, and so on) so type mistakes are caught before the tool is scheduled.
+ *
+ * <p>Null values and arguments the tool does not declare pass through untouched; missing values are reported
+ * separately by the workflow.
+ */
+public final class ArgumentSchema {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final Map<String, ArgumentCheck> checks;
+
+    private ArgumentSchema(Map<String, ArgumentCheck> checks) {
+        this.checks = checks;
+    }
+
+    public static ArgumentSchema compile(ToolDefinition definition) {
+        Map<String, ArgumentCheck> checks = new LinkedHashMap<>();
+        for (ToolArgument argument : definition.getArguments()) {
+            checks.put(argument.getName(), compile(argument));
+        }
+        return new ArgumentSchema(checks);
+    }
+
+    public Result validate(Map<String, Object> args) {
+        Map<String, Object> coerced = new LinkedHashMap<>(args);
+        List<String> errors = new ArrayList<>();
+        args.forEach((name, value) -> {
+            ArgumentCheck check = checks.get(name);
+            if (check == null || value == null) {
+                return;
+            }
+            try {
+                coerced.put(name, check.apply(value));
+            } catch (InvalidArgumentException e) {
+                errors.add(name + " " + e.getMessage());
+            }
+        });
+        return new Result(coerced, errors);
+    }
+
+    public record Result(Map<String, Object> args, List<String> errors) {
+
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ArgumentCheck {
+        Object apply(Object value) throws InvalidArgumentException;
+    }
+
+    private static final class InvalidArgumentException extends Exception {
+        InvalidArgumentException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static ArgumentCheck compile(ToolArgument argument) {
+        String type = argument.getType() != null ? argument.getType().toLowerCase(Locale.ROOT) : "string";
+        ArgumentCheck typeCheck = switch (type) {
+            case "number", "integer" -> ArgumentSchema::toNumber;
+            case "boolean" -> ArgumentSchema::toBoolean;
+            case "array" -> arrayCheck(argument.getItemFields());
+            case "object" -> ArgumentSchema::toObject;
+            default -> ArgumentSchema::toText;
+        };
+        if (!"email".equalsIgnoreCase(argument.getFormat())) {
+            return typeCheck;
+        }
+        return value -> {
+            Object text = typeCheck.apply(value);
+            if (!EMAIL.matcher(text.toString()).matches()) {
+                throw new InvalidArgumentException("must be a valid email address (got '" + text + "')");
+            }
+            return text;
+        };
+    }
+
+    private static Object toText(Object value) throws InvalidArgumentException {
+        if (value instanceof Map<?, ?> || value instanceof List<?>) {
+            throw new InvalidArgumentException("must be a single text value");
+        }
+        return value.toString().trim();
+    }
+
+    private static Object toNumber(Object value) throws InvalidArgumentException {
+        BigDecimal number;
+        try {
+            number = value instanceof Number n ? new BigDecimal(n.toString()) : new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidArgumentException("must be a number (got '" + value + "')");
+        }
+        if (number.stripTrailingZeros().scale() <= 0) {
+            try {
+                return number.longValueExact();
+            } catch (ArithmeticException e) {
+                throw new InvalidArgumentException("is out of range (got '" + value + "')");
+            }
+        }
+        return number.doubleValue();
+    }
+
+    private static Object toBoolean(Object value) throws InvalidArgumentException {
+        if (value instanceof Boolean) {
+            return value;
+        }
+        String text = value.toString().trim().toLowerCase(Locale.ROOT);
+        return switch (text) {
+            case "true", "yes" -> true;
+            case "false", "no" -> false;
+            default -> throw new InvalidArgumentException("must be true or false (got '" + value + "')");
+        };
+    }
+
+    private static Object toObject(Object value) throws InvalidArgumentException {
+        if (!(value instanceof Map<?, ?>)) {
+            throw new InvalidArgumentException("must be an object of key/value pairs");
+        }
+        return value;
+    }
+
+    private static ArgumentCheck arrayCheck(List<String> itemFields) {
+        return value -> {
+            List<?> items = value instanceof List<?> list ? list
+                    : value instanceof Map<?, ?> single ? List.of(single)
+                    : null;
+            if (items == null) {
+                throw new InvalidArgumentException("must be a list");
+            }
+            if (itemFields.isEmpty()) {
+                return items;
+            }
+            for (int i = 0; i < items.size(); i++) {
+                if (!(items.get(i) instanceof Map<?, ?> item)) {
+                    throw new InvalidArgumentException("item " + (i + 1) + " must be an object with " + String.join(", ", itemFields));
+                }
+                for (String field : itemFields) {
+                    if (item.get(field) == null) {
+                        throw new InvalidArgumentException("item " + (i + 1) + " is missing '" + field + "'");
+                    }
+                }
+            }
+            return items;
+        };
+    }
+}
@@ -2,7 +2,9 @@ package io.temporal.agent.workflow;
 
 import io.temporal.agent.model.conversation.ConversationHistory;
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
 import io.temporal.agent.model.workflow.CombinedInput;
+import io.temporal.agent.model.workflow.ConversationOutcome;
 import io.temporal.agent.model.workflow.ToolDecision;
 import io.temporal.workflow.QueryMethod;
 import io.temporal.workflow.SignalMethod;
@@ -12,8 +14,13 @@ import io.temporal.workflow.WorkflowMethod;
 @WorkflowInterface
 public interface AgentGoalWorkflow {
 
+    /**
+     * Prompts signalled while this many are already waiting to be planned are dropped.
+     */
+    int MAX_QUEUED_PROMPTS = 20;
+
     @WorkflowMethod
-    String run(CombinedInput input);
+    ConversationOutcome run(CombinedInput input);
 
     @SignalMethod
     void submitUserPrompt(String prompt);
@@ -27,6 +34,9 @@ public interface AgentGoalWorkflow {
     @SignalMethod
     void selectGoal(AgentGoal goal);
 
+    @SignalMethod(name = "selectGoalReference")
+    void selectGoalReference(GoalReference reference);
+
     @QueryMethod(name = "conversationHistory")
     ConversationHistory getConversationHistory();
 
@@ -38,4 +48,7 @@ public interface AgentGoalWorkflow {
 
     @QueryMethod(name = "chatEnded")
     boolean isChatEnded();
+
+    @QueryMethod(name = "autoConfirmedTurns")
+    int getAutoConfirmedTurns();
 }
@@ -1,97 +1,199 @@
 package io.temporal.agent.workflow;
 
+import com.uber.m3.tally.Counter;
+import io.temporal.agent.activities.PlannerContextActivities;
 import io.temporal.agent.activities.ToolActivities;
 import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
+import io.temporal.agent.model.tools.IdleAction;
+import io.temporal.agent.model.tools.ToolChain;
+import io.temporal.agent.model.tools.ToolChainStep;
+import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolError;
+import io.temporal.agent.model.tools.ToolExecutionMode;
 import io.temporal.agent.model.workflow.AgentGoalWorkflowParams;
 import io.temporal.agent.model.workflow.CombinedInput;
+import io.temporal.agent.model.workflow.ContextTurn;
+import io.temporal.agent.model.workflow.ConversationOutcome;
 import io.temporal.agent.model.workflow.EnvLookupInput;
 import io.temporal.agent.model.workflow.EnvLookupOutput;
+import io.temporal.agent.model.workflow.LlmCallType;
 import io.temporal.agent.model.workflow.NextStep;
 import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.model.workflow.ToolInvocation;
 import io.temporal.agent.model.workflow.ToolPromptInput;
 import io.temporal.agent.model.workflow.ValidationInput;
 import io.temporal.agent.model.workflow.ValidationResult;
 import io.temporal.agent.prompt.AgentPromptGenerator;
+import io.temporal.agent.tools.validation.ArgumentSchema;
+import io.temporal.activity.ActivityCancellationType;
 import io.temporal.activity.ActivityOptions;
+import io.temporal.activity.LocalActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.failure.ActivityFailure;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.failure.TimeoutFailure;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.CancellationScope;
+import io.temporal.workflow.Promise;
 import io.temporal.workflow.Workflow;
+import io.temporal.workflow.WorkflowInfo;
 import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class AgentGoalWorkflowImpl implements AgentGoalWorkflow {
 
+    private static final Duration HOST_SCHEDULE_TO_START = Duration.ofSeconds(10);
+    // A prefetched read older than this may no longer reflect the system it was read from.
+    private static final Duration PREFETCH_MAX_AGE = Duration.ofMinutes(2);
+
+    private final ActivityOptions llmOptions;
     private final ToolActivities llmActivities;
+    private final ToolActivities setupActivities;
+    private final PlannerContextActivities contextLookup;
     private final ToolActivities toolActivities;
+    private final ToolActivities localToolActivities;
 
     private final ConversationHistory conversationHistory = new ConversationHistory();
     private final Deque<String> promptQueue = new ArrayDeque<>();
-    private final List<Map<String, Object>> toolResults = new ArrayList<>();
 
     private String conversationSummary;
     private boolean chatEnded;
     private boolean confirmed;
     private boolean waitingForConfirm;
+    private boolean goalCompleted;
     private ToolDecision toolDecision;
     private AgentGoal goal;
+    private GoalReference goalReference;
+    private EnvLookupOutput envSettings;
     private boolean showToolArgsConfirmation = true;
     private boolean multiGoalMode;
     private Map<String, Object> mcpToolsInfo;
+    private boolean supersedePrompts = true;
+    private boolean providerSessions;
+    private String providerSessionId;
+    private int providerSessionMessages;
+    private boolean workerAffinity;
+    private String hostTaskQueue;
+    private PlannerContextActivities hostActivities;
+    private int hostSequence;
+    private AgentGoal hostGoal;
+    private Map<String, Object> hostMcpToolsInfo;
+    private boolean autoConfirmSafeTools;
+    private int autoConfirmedTurns;
+    private boolean firstAgentMessageRecorded;
+    private String supersededPrompt;
+    private final Map<String, Prefetch> prefetches = new LinkedHashMap<>();
+    private final Map<String, ConversationOutcome.ToolUsage> toolUsage = new LinkedHashMap<>();
+    private final Map<String, ArgumentSchema> argumentSchemas = new HashMap<>();
 
     public AgentGoalWorkflowImpl() {
-        ActivityOptions llmOptions = ActivityOptions.newBuilder()
+        this.llmOptions = ActivityOptions.newBuilder()
                 .setScheduleToCloseTimeout(Duration.ofMinutes(5))
                 .setStartToCloseTimeout(Duration.ofSeconds(40))
+                .setHeartbeatTimeout(Duration.ofSeconds(4))
+                .setCancellationType(ActivityCancellationType.TRY_CANCEL)
+                .build();
+        // Business errors come back as ToolError results, so only transient failures reach the retry policy.
+        RetryOptions toolRetryOptions = RetryOptions.newBuilder()
+                .setInitialInterval(Duration.ofSeconds(1))
+                .setBackoffCoefficient(2.0)
+                .setMaximumInterval(Duration.ofSeconds(10))
+                .setMaximumAttempts(4)
+                .setDoNotRetry(IllegalArgumentException.class.getName())
                 .build();
         ActivityOptions toolOptions = ActivityOptions.newBuilder()
                 .setScheduleToCloseTimeout(Duration.ofMinutes(5))
                 .setStartToCloseTimeout(Duration.ofSeconds(20))
+                .setRetryOptions(toolRetryOptions)
+                .build();
+        LocalActivityOptions localToolOptions = LocalActivityOptions.newBuilder()
+                .setStartToCloseTimeout(Duration.ofSeconds(5))
+                .setRetryOptions(toolRetryOptions)
                 .build();
         this.llmActivities = Workflow.newActivityStub(ToolActivities.class, llmOptions);
+        // MCP discovery and the settings lookup do not heartbeat, so they must not inherit the LLM heartbeat timeout.
+        this.setupActivities = Workflow.newActivityStub(ToolActivities.class, ActivityOptions.newBuilder()
+                .setScheduleToCloseTimeout(Duration.ofMinutes(5))
+                .setStartToCloseTimeout(Duration.ofSeconds(40))
+                .build());
+        // Affinity is switched on by the starter's settings, so the workers may not host the lookup; give up quickly.
+        this.contextLookup = Workflow.newActivityStub(PlannerContextActivities.class, ActivityOptions.newBuilder()
+                .setScheduleToStartTimeout(HOST_SCHEDULE_TO_START)
+                .setStartToCloseTimeout(Duration.ofSeconds(10))
+                .setRetryOptions(RetryOptions.newBuilder().setMaximumAttempts(2).build())
+                .build());
         this.toolActivities = Workflow.newActivityStub(ToolActivities.class, toolOptions);
+        this.localToolActivities = Workflow.newLocalActivityStub(ToolActivities.class, localToolOptions);
     }
 
     @Override
-    public String run(CombinedInput input) {
-        this.goal = ensureGoal(input != null ? input.getAgentGoal() : null);
+    public ConversationOutcome run(CombinedInput input) {
+        if (input != null && input.getGoalReference() != null) {
+            if (!useGoalReference(input.getGoalReference())) {
+                this.goal = ensureGoal(null);
+                addAgentMessage("The goal " + input.getGoalReference().goalId()
+                        + " is no longer available, so let's pick another one.");
+            }
+        } else {
+            this.goal = ensureGoal(input != null ? input.getAgentGoal() : null);
+        }
         AgentGoalWorkflowParams params = input != null ? input.getToolParams() : null;
 
-        lookupWorkflowEnvSettings();
+        applyWorkflowEnvSettings(input != null ? input.getEnvSettings() : null);
         this.mcpToolsInfo = null;
         if (this.goal.getMcpServerDefinition() != null) {
-            this.mcpToolsInfo = llmActivities.listMcpTools(this.goal.getMcpServerDefinition(), this.goal.getMcpServerDefinition().getIncludedTools());
+            this.mcpToolsInfo = setupActivities.listMcpTools(this.goal.getMcpServerDefinition(), this.goal.getMcpServerDefinition().getIncludedTools());
         }
 
+        // Prompts signalled with the start request are delivered before run() and go after the greeting turn.
+        List<String> signalledPrompts = new ArrayList<>(promptQueue);
+        promptQueue.clear();
         if (params != null) {
             if (params.getConversationSummary() != null) {
                 this.conversationSummary = params.getConversationSummary();
-                conversationHistory.addMessage("conversation_summary", params.getConversationSummary());
+                conversationHistory.addMessage(MessageType.CONVERSATION_SUMMARY, params.getConversationSummary());
             }
             if (params.getPromptQueue() != null) {
                 promptQueue.addAll(params.getPromptQueue());
             }
         }
 
-        enqueueStarterPrompt();
+        if (params == null || !params.isSkipStarterPrompt()) {
+            enqueueStarterPrompt();
+        }
+        promptQueue.addAll(signalledPrompts);
 
-        String currentTool = null;
+        boolean parked = params != null && params.isParked();
         while (true) {
-            Workflow.await(() -> !promptQueue.isEmpty() || chatEnded || (confirmed && waitingForConfirm));
+            if (!awaitUserActivity(parked)) {
+                if (goal.getIdleAction() == IdleAction.PARK) {
+                    park();
+                }
+                return endIdleConversation();
+            }
+            parked = false;
 
             if (chatEnded) {
-                Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Chat ended, returning conversation history");
-                return conversationHistory.getMessages().toString();
+                Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Chat ended, returning conversation outcome");
+                return outcome(ConversationOutcome.Completion.CHAT_ENDED);
             }
 
-            if (confirmed && waitingForConfirm && currentTool != null && toolDecision != null) {
-                waitingForConfirm = executeTool(currentTool);
-                if (!waitingForConfirm) {
-                    currentTool = null;
+            if (confirmed && waitingForConfirm && toolDecision != null && !toolDecision.getInvocations().isEmpty()) {
+                waitingForConfirm = executeTools(toolDecision.getInvocations());
+                if (goalCompleted) {
+                    return outcome(ConversationOutcome.Completion.GOAL_COMPLETED);
                 }
                 continue;
             }
@@ -103,52 +205,76 @@ public class AgentGoalWorkflowImpl implements AgentGoalWorkflow {
                 }
 
                 if (isUserPrompt(prompt)) {
-                    conversationHistory.addMessage("user", prompt);
+                    prompt = coalesceUserPrompts(prompt);
+                    if (supersededPrompt != null) {
+                        prompt = supersededPrompt + "\n" + prompt;
+                        supersededPrompt = null;
+                    }
                     if (this.goal != null) {
-                        ValidationResult validation = llmActivities.agentValidatePrompt(
-                                new ValidationInput(prompt, conversationHistory, this.goal));
+                        ValidationResult validation = validatePrompt(prompt);
+                        if (validation == null) {
+                            handleInterruptedTurn(prompt);
+                            continue;
+                        }
                         if (!validation.isValidationResult()) {
-                            conversationHistory.addMessage("agent", validation.getValidationFailedReason());
+                            addAgentMessage(validation.getValidationFailedReason());
                             continue;
                         }
                     }
                 }
 
-                String context = AgentPromptGenerator.generateGenAiPrompt(this.goal, conversationHistory, multiGoalMode, toolDecision, mcpToolsInfo);
-                Map<String, Object> rawDecision = llmActivities.agentToolPlanner(new ToolPromptInput(prompt, context));
+                Map<String, Object> rawDecision = plan(prompt);
+                if (rawDecision == null) {
+                    handleInterruptedTurn(prompt);
+                    continue;
+                }
                 this.toolDecision = ToolDecision.fromRawMap(rawDecision);
                 this.toolDecision.ensureForceConfirm(showToolArgsConfirmation);
                 NextStep nextStep = this.toolDecision.getNext();
-                currentTool = this.toolDecision.getTool();
-
-                if (nextStep == NextStep.CONFIRM && currentTool != null) {
-                    List<String> missingArgs = findMissingArgs(this.toolDecision.getArgsOrEmpty());
-                    if (!missingArgs.isEmpty()) {
-                        promptQueue.add(AgentPromptGenerator.generateMissingArgsPrompt(currentTool, missingArgs));
+                List<ToolInvocation> invocations = this.toolDecision.getInvocations();
+
+                if (nextStep == NextStep.CONFIRM && !invocations.isEmpty()) {
+                    ToolInvocation incomplete = invocations.stream()
+                            .filter(invocation -> !findMissingArgs(invocation.getArgsOrEmpty()).isEmpty())
+                            .findFirst()
+                            .orElse(null);
+                    if (incomplete != null) {
+                        promptQueue.add(AgentPromptGenerator.generateMissingArgsPrompt(
+                                incomplete.getTool(), findMissingArgs(incomplete.getArgsOrEmpty())));
+                        continue;
+                    }
+                    invocations = validateArgs(invocations);
+                    if (invocations == null) {
                         continue;
                     }
                     waitingForConfirm = true;
-                    if (!showToolArgsConfirmation) {
-                        confirmed = true;
-                    } else {
-                        confirmed = false;
+                    List<ToolDefinition> definitions = invocations.stream()
+                            .map(invocation -> findToolDefinition(invocation.getTool()))
+                            .toList();
+                    ConfirmationPolicy policy = new ConfirmationPolicy(showToolArgsConfirmation, autoConfirmSafeTools);
+                    confirmed = !policy.requiresConfirmation(definitions);
+                    if (policy.savesTurn(definitions)) {
+                        this.toolDecision.ensureForceConfirm(false);
+                        autoConfirmedTurns++;
+                        Workflow.getMetricsScope().counter("agent.confirm.turns_saved").inc(1);
                     }
                 } else if (nextStep == NextStep.PICK_NEW_GOAL) {
+                    discardPrefetches();
                     boolean alreadySelectingGoal = isGoalSelection(this.goal);
                     this.goal = ensureGoal(null);
+                    this.goalReference = null;
                     this.mcpToolsInfo = null;
                     if (!alreadySelectingGoal) {
                         enqueueStarterPrompt();
                     }
                     waitingForConfirm = false;
                     confirmed = false;
-                    currentTool = null;
                 } else if (nextStep == NextStep.DONE) {
-                    conversationHistory.addMessage("agent", this.toolDecision.toRawMap());
-                    return conversationHistory.getMessages().toString();
+                    addAgentMessage(this.toolDecision.toRawMap());
+                    return outcome(ConversationOutcome.Completion.GOAL_COMPLETED);
                 }
 
-                conversationHistory.addMessage("agent", this.toolDecision.toRawMap());
+                addAgentMessage(this.toolDecision.toRawMap());
             }
         }
     }
@@ -159,6 +285,16 @@ public class AgentGoalWorkflowImpl implements AgentGoalWorkflow {
         if (chatEnded) {
             return;
         }
+        // Counts every waiting prompt, so signalled "###" prompts cannot grow the queue without bound either.
+        int queuedPrompts = promptQueue.size();
+        if (queuedPrompts >= MAX_QUEUED_PROMPTS) {
+            Workflow.getLogger(AgentGoalWorkflowImpl.class)
+                    .warn("Dropping user prompt; {} prompts are already waiting", queuedPrompts);
+            Workflow.getMetricsScope().counter("agent.prompt.dropped").inc(1);
+            addAgentMessage("I still have " + queuedPrompts + " messages to work through, so I couldn't take \""
+                    + prompt + "\". Please send it again once I've replied.");
+            return;
+        }
         promptQueue.add(prompt);
     }
 
@@ -180,13 +316,48 @@ public class AgentGoalWorkflowImpl implements AgentGoalWorkflow {
     public void selectGoal(AgentGoal goal) {
         Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Selecting goal {}", goal != null ? goal.getId() : "null");
         this.goal = ensureGoal(goal);
+        this.goalReference = null;
+        switchToCurrentGoal();
+    }
+
+    @Override
+    public void selectGoalReference(GoalReference reference) {
+        Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Selecting goal {}", reference);
+        if (!useGoalReference(reference)) {
+            addAgentMessage("The goal " + reference.goalId() + " is not available right now. Please choose another one.");
+            return;
+        }
+        switchToCurrentGoal();
+    }
+
+    private void switchToCurrentGoal() {
+        discardPrefetches();
         this.mcpToolsInfo = null;
         if (this.goal.getMcpServerDefinition() != null) {
-            this.mcpToolsInfo = llmActivities.listMcpTools(this.goal.getMcpServerDefinition(), this.goal.getMcpServerDefinition().getIncludedTools());
+            this.mcpToolsInfo = setupActivities.listMcpTools(this.goal.getMcpServerDefinition(), this.goal.getMcpServerDefinition().getIncludedTools());
         }
         enqueueStarterPrompt();
     }
 
+    /**
+     * Points the workflow at a catalog goal. The goal is resolved by a local activity, so a replay reads the recorded
+     * result instead of whatever versions the replaying worker has. Returns {@code false}, leaving the goal unchanged,
+     * when the version is unknown, so an unresolvable reference never fails the run.
+     */
+    private boolean useGoalReference(GoalReference reference) {
+        try {
+            this.goal = localToolActivities.resolveGoal(reference);
+            this.goalReference = reference;
+            return true;
+        } catch (ActivityFailure failure) {
+            if (!isFailureType(failure, GoalReference.NOT_FOUND)) {
+                throw failure;
+            }
+            Workflow.getLogger(AgentGoalWorkflowImpl.class).warn("Goal {} is not available", reference);
+            return false;
+        }
+    }
+
     @Override
     public ConversationHistory getConversationHistory() {
         return conversationHistory;
@@ -207,10 +378,215 @@ public class AgentGoalWorkflowImpl implements AgentGoalWorkflow {
         return chatEnded;
     }
 
-    private void lookupWorkflowEnvSettings() {
-        EnvLookupOutput env = llmActivities.getWorkflowEnvVars(new EnvLookupInput("SHOW_CONFIRM", true));
+    @Override
+    public int getAutoConfirmedTurns() {
+        return autoConfirmedTurns;
+    }
+
+    /**
+     * Runs an LLM activity in its own cancellation scope and gives up on it as soon as the chat ends or, under the
+     * supersede policy, a newer user prompt arrives. Returns {@code null} when the call was abandoned.
+     */
+    private <R> R awaitInterruptible(String inFlightPrompt, Supplier<Promise<R>> call) {
+        List<Promise<R>> pending = new ArrayList<>(1);
+        CancellationScope scope = Workflow.newCancellationScope(() -> pending.add(call.get()));
+        scope.run();
+        Promise<R> promise = pending.get(0);
+        Workflow.await(() -> promise.isCompleted() || isTurnInterrupted(inFlightPrompt));
+        if (!promise.isCompleted()) {
+            scope.cancel("LLM turn interrupted");
+            return null;
+        }
+        return promise.get();
+    }
+
+    /**
+     * Asks the planner for the next decision. If the provider session it continues has expired, the session is
+     * dropped and the turn is sent again with the whole conversation.
+     */
+    private Map<String, Object> plan(String prompt) {
+        try {
+            return awaitPlanner(prompt);
+        } catch (ActivityFailure failure) {
+            if (isFailureType(failure, ToolPromptInput.SESSION_NOT_FOUND)) {
+                Workflow.getLogger(AgentGoalWorkflowImpl.class)
+                        .info("Provider session {} expired; resending the full conversation", providerSessionId);
+                providerSessionId = null;
+                providerSessionMessages = 0;
+            } else if (isFailureType(failure, ContextTurn.CONTEXT_MISS)) {
+                Workflow.getLogger(AgentGoalWorkflowImpl.class)
+                        .info("Pinned worker lost the planner context; resending it");
+                resetHostContext();
+            } else if (hostActivities != null && failure.getCause() instanceof TimeoutFailure) {
+                Workflow.getLogger(AgentGoalWorkflowImpl.class)
+                        .info("Pinned worker did not take the planner turn; pinning to another worker");
+                hostActivities = null;
+                resetHostContext();
+            } else {
+                throw failure;
+            }
+            return awaitPlanner(prompt);
+        }
+    }
+
+    /**
+     * Validates a prompt against the current goal, sending only its reference when there is one. If the worker that
+     * picks up the validation does not have that version, the goal is sent inline instead. Returns {@code null} when
+     * the turn was interrupted.
+     */
+    private ValidationResult validatePrompt(String prompt) {
+        if (goalReference != null) {
+            ValidationInput byReference = new ValidationInput(prompt, conversationHistory, goalReference);
+            try {
+                return awaitInterruptible(prompt, () -> Async.function(llmActivities::agentValidatePrompt, byReference));
+            } catch (ActivityFailure failure) {
+                if (!isFailureType(failure, GoalReference.NOT_FOUND)) {
+                    throw failure;
+                }
+                Workflow.getLogger(AgentGoalWorkflowImpl.class)
+                        .warn("Goal {} is not available to the validator; sending it inline", goalReference);
+            }
+        }
+        ValidationInput inline = new ValidationInput(prompt, conversationHistory, this.goal);
+        return awaitInterruptible(prompt, () -> Async.function(llmActivities::agentValidatePrompt, inline));
+    }
+
+    private static boolean isFailureType(ActivityFailure failure, String type) {
+        return failure.getCause() instanceof ApplicationFailure cause && type.equals(cause.getType());
+    }
+
+    private Map<String, Object> awaitPlanner(String prompt) {
+        LlmCallType callType = isGoalSelection(this.goal) ? LlmCallType.GOAL_SELECTION : LlmCallType.PLANNING;
+        ToolPromptInput plannerInput;
+        int sentMessages = conversationHistory.getMessages().size();
+        if (workerAffinity && !providerSessions && pinToHost()) {
+            return awaitPlannerOnHost(prompt, callType, sentMessages);
+        }
+        if (providerSessions) {
+            // The provider keeps earlier turns, so only the messages it has not seen go with the prompt.
+            String context = AgentPromptGenerator.generateGenAiPrompt(this.goal, null, multiGoalMode, toolDecision, mcpToolsInfo);
+            plannerInput = new ToolPromptInput(prompt, context, callType, this.goal.getId());
+            plannerInput.continueSession(providerSessionId, List.copyOf(
+                    conversationHistory.getMessages().subList(providerSessionMessages, sentMessages)));
+        } else {
+            String context = AgentPromptGenerator.generateGenAiPrompt(this.goal, conversationHistory, multiGoalMode, toolDecision, mcpToolsInfo);
+            plannerInput = new ToolPromptInput(prompt, context, callType, this.goal.getId());
+        }
+        Map<String, Object> rawDecision = awaitInterruptible(prompt,
+                () -> Async.function(llmActivities::agentToolPlanner, plannerInput));
+        if (rawDecision != null && rawDecision.get(ToolPromptInput.SESSION_RESPONSE_ID) instanceof String responseId) {
+            providerSessionId = responseId;
+            providerSessionMessages = sentMessages;
+        }
+        return rawDecision;
+    }
+
+    /**
+     * Pins the conversation to a worker that caches planner context, unless it already is. When no worker answers the
+     * lookup, for example because the workers run without worker affinity, affinity is turned off for the rest of the
+     * run and the turn is planned without it. Returns whether the conversation is pinned.
+     */
+    private boolean pinToHost() {
+        if (hostActivities != null) {
+            return true;
+        }
+        try {
+            hostTaskQueue = contextLookup.hostTaskQueue();
+        } catch (ActivityFailure failure) {
+            Workflow.getLogger(AgentGoalWorkflowImpl.class)
+                    .warn("No worker hosts planner context ({}); planning without worker affinity", failure.getMessage());
+            workerAffinity = false;
+            return false;
+        }
+        ActivityOptions hostOptions = ActivityOptions.newBuilder(llmOptions)
+                .setTaskQueue(hostTaskQueue)
+                .setScheduleToStartTimeout(HOST_SCHEDULE_TO_START)
+                .build();
+        hostActivities = Workflow.newActivityStub(PlannerContextActivities.class, hostOptions);
+        return true;
+    }
+
+    /**
+     * Sends the turn to the worker this conversation is pinned to. That worker keeps the goal context and history, so
+     * only messages added since its last successful turn are sent, plus the goal context when the goal changed.
+     */
+    private Map<String, Object> awaitPlannerOnHost(String prompt, LlmCallType callType, int sentMessages) {
+        ContextTurn turn = new ContextTurn(prompt, callType, this.goal.getId(), hostSequence,
+                List.copyOf(conversationHistory.getMessages().subList(hostSequence, sentMessages)));
+        if (hostGoal != this.goal || hostMcpToolsInfo != mcpToolsInfo) {
+            turn.setGoalContext(AgentPromptGenerator.generateGoalContext(this.goal, mcpToolsInfo));
+        }
+        turn.setCorrection(toolDecision != null);
+        PlannerContextActivities host = hostActivities;
+        Map<String, Object> rawDecision = awaitInterruptible(prompt,
+                () -> Async.function(host::planWithCachedContext, turn));
+        if (rawDecision != null) {
+            hostSequence = sentMessages;
+            hostGoal = this.goal;
+            hostMcpToolsInfo = mcpToolsInfo;
+        }
+        return rawDecision;
+    }
+
+    private void resetHostContext() {
+        hostSequence = 0;
+        hostGoal = null;
+        hostMcpToolsInfo = null;
+    }
+
+    /**
+     * Tells the pinned worker to drop this conversation's cached context because the run takes no further turns. Best
+     * effort: a worker that is gone or slow to answer ages the entry out on its own.
+     */
+    private void releaseHostContext() {
+        if (hostActivities == null) {
+            return;
+        }
+        PlannerContextActivities host = Workflow.newActivityStub(PlannerContextActivities.class,
+                ActivityOptions.newBuilder()
+                        .setTaskQueue(hostTaskQueue)
+                        .setScheduleToStartTimeout(HOST_SCHEDULE_TO_START)
+                        .setStartToCloseTimeout(Duration.ofSeconds(5))
+                        .setRetryOptions(RetryOptions.newBuilder().setMaximumAttempts(1).build())
+                        .build());
+        hostActivities = null;
+        resetHostContext();
+        try {
+            host.releaseContext();
+        } catch (ActivityFailure failure) {
+            Workflow.getLogger(AgentGoalWorkflowImpl.class)
+                    .info("Pinned worker did not release the planner context: {}", failure.getMessage());
+        }
+    }
+
+    private boolean isTurnInterrupted(String inFlightPrompt) {
+        if (chatEnded) {
+            return true;
+        }
+        return supersedePrompts
+                && isUserPrompt(inFlightPrompt)
+                && promptQueue.stream().anyMatch(this::isUserPrompt);
+    }
+
+    private void handleInterruptedTurn(String prompt) {
+        if (chatEnded) {
+            return;
+        }
+        Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Superseding in-flight turn with newer user prompt");
+        supersededPrompt = prompt;
+    }
+
+    private void applyWorkflowEnvSettings(EnvLookupOutput provided) {
+        EnvLookupOutput env = provided != null
+                ? provided
+                : setupActivities.getWorkflowEnvVars(new EnvLookupInput("SHOW_CONFIRM", true));
+        this.envSettings = env;
         this.showToolArgsConfirmation = env.isShowConfirm();
         this.multiGoalMode = env.isMultiGoalMode();
+        this.supersedePrompts = env.isSupersedePrompts();
+        this.autoConfirmSafeTools = env.isAutoConfirmSafeTools();
+        this.providerSessions = env.isProviderSessions();
+        this.workerAffinity = env.isWorkerAffinity();
     }
 
     private void enqueueStarterPrompt() {
@@ -228,24 +604,345 @@ public class AgentGoalWorkflowImpl implements AgentGoalWorkflow {
         promptQueue.add(sanitizedPrompt);
     }
 
+    /**
+     * Drains any user prompts queued directly behind {@code first} so a burst of messages is planned as one turn.
+     * Each prompt is still recorded in the history on its own.
+     */
+    private String coalesceUserPrompts(String first) {
+        List<String> prompts = new ArrayList<>();
+        prompts.add(first);
+        while (isUserPrompt(promptQueue.peekFirst())) {
+            prompts.add(promptQueue.pollFirst());
+        }
+        prompts.forEach(prompt -> conversationHistory.addMessage(MessageType.USER, prompt));
+        if (prompts.size() > 1) {
+            Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Coalesced {} queued user prompts into one turn", prompts.size());
+        }
+        return String.join("\n", prompts);
+    }
+
+    /**
+     * Waits for a prompt, a confirmation or the end of the chat. Returns {@code false} if the goal's idle timeout
+     * passes first; parked runs wait without a deadline. The idle timer is only started when there is nothing to do
+     * yet, and is cancelled as soon as activity arrives so it never fires into history.
+     */
+    private boolean awaitUserActivity(boolean parked) {
+        Supplier<Boolean> active = () -> !promptQueue.isEmpty() || chatEnded || (confirmed && waitingForConfirm);
+        if (active.get()) {
+            return true;
+        }
+        long idleTimeoutSeconds = goal.getIdleTimeoutSeconds();
+        if (parked || idleTimeoutSeconds <= 0) {
+            Workflow.await(active);
+            return true;
+        }
+        List<Promise<Void>> timers = new ArrayList<>(1);
+        CancellationScope scope = Workflow.newCancellationScope(
+                () -> timers.add(Workflow.newTimer(Duration.ofSeconds(idleTimeoutSeconds))));
+        scope.run();
+        Promise<Void> idleTimer = timers.get(0);
+        Workflow.await(() -> idleTimer.isCompleted() || active.get());
+        if (active.get()) {
+            scope.cancel("User activity arrived");
+            return true;
+        }
+        return false;
+    }
+
+    private String idleSummary() {
+        return AgentPromptGenerator.generateIdleSummary(goal, conversationSummary, conversationHistory,
+                List.copyOf(toolUsage.keySet()));
+    }
+
+    private ConversationOutcome endIdleConversation() {
+        Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Conversation idle, ending");
+        Workflow.getMetricsScope().counter("agent.conversation.idle_ended").inc(1);
+        String summary = idleSummary();
+        conversationHistory.addMessage(MessageType.CONVERSATION_SUMMARY, summary);
+        return outcome(ConversationOutcome.Completion.IDLE_ENDED, summary);
+    }
+
+    /**
+     * Continues as new into a run that holds only the idle summary, dropping the history and cached state of this
+     * run. Does not return.
+     */
+    private void park() {
+        Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Conversation idle, parking");
+        Workflow.getMetricsScope().counter("agent.conversation.parked").inc(1);
+        discardPrefetches();
+        AgentGoalWorkflowParams parkedParams = new AgentGoalWorkflowParams(idleSummary(), promptQueue);
+        parkedParams.setSkipStarterPrompt(true);
+        parkedParams.setParked(true);
+        CombinedInput parkedInput = goalReference != null
+                ? new CombinedInput(parkedParams, goalReference)
+                : new CombinedInput(parkedParams, goal);
+        parkedInput.setEnvSettings(envSettings);
+        releaseHostContext();
+        Workflow.continueAsNew(parkedInput);
+    }
+
+    private ConversationOutcome outcome(ConversationOutcome.Completion completion) {
+        return outcome(completion, null);
+    }
+
+    private ConversationOutcome outcome(ConversationOutcome.Completion completion, String summary) {
+        discardPrefetches();
+        releaseHostContext();
+        WorkflowInfo info = Workflow.getInfo();
+        String transcriptRef = "temporal://" + info.getNamespace() + "/workflows/" + info.getWorkflowId() + "/"
+                + info.getRunId() + "#conversationHistory";
+        return new ConversationOutcome(
+                goal != null ? goal.getId() : null,
+                goalReference != null ? goalReference.version() : null,
+                completion,
+                toolDecision != null ? toolDecision.getResponse() : null,
+                List.copyOf(toolUsage.values()),
+                conversationHistory.getMessages().size(),
+                transcriptRef,
+                summary);
+    }
+
+    private void addAgentMessage(Object response) {
+        conversationHistory.addMessage(MessageType.AGENT, response);
+        if (!firstAgentMessageRecorded) {
+            firstAgentMessageRecorded = true;
+            if (Workflow.getInfo().getContinuedExecutionRunId().isEmpty()) {
+                long latencyMillis = Workflow.currentTimeMillis() - Workflow.getInfo().getRunStartedTimestampMillis();
+                Workflow.getMetricsScope().timer("agent.conversation.first_message_latency")
+                        .record(com.uber.m3.util.Duration.ofMillis(latencyMillis));
+            }
+        }
+    }
+
     private boolean isUserPrompt(String prompt) {
         return prompt != null && !prompt.startsWith("###");
     }
 
-    private boolean executeTool(String currentTool) {
-        Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Executing tool {}", currentTool);
+    /**
+     * Runs the confirmed tool calls. Independent invocations from one decision are started together and their results
+     * are folded into a single completion prompt, so the planner is consulted once rather than once per call.
+     */
+    private boolean executeTools(List<ToolInvocation> invocations) {
         confirmed = false;
         Map<String, Object> confirmedToolData = new HashMap<>(toolDecision.toRawMap());
         confirmedToolData.put("next", "user_confirmed_tool_run");
-        conversationHistory.addMessage("user_confirmed_tool_run", confirmedToolData);
+        conversationHistory.addMessage(MessageType.USER_CONFIRMED_TOOL_RUN, confirmedToolData);
+
+        if (invocations.size() == 1) {
+            ToolInvocation invocation = invocations.get(0);
+            Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Executing tool {}", invocation.getTool());
+            Promise<Map<String, Object>> pending = startTool(invocation);
+            discardPrefetches();
+            Map<String, Object> result = awaitToolResult(invocation.getTool(), pending);
+            recordToolResult(invocation.getTool(), result);
+            if (ToolError.isError(result)) {
+                promptQueue.add(AgentPromptGenerator.generateToolErrorPrompt(invocation.getTool(), result));
+                return false;
+            }
+            ToolChain chain = goal != null ? goal.findToolChain(invocation.getTool()) : null;
+            if (chain != null) {
+                runToolChain(chain, invocation, result);
+                return false;
+            }
+            if (!summarizeLocally(invocation.getTool(), result)) {
+                promptQueue.add(AgentPromptGenerator.generateToolCompletionPrompt(invocation.getTool(), result));
+            }
+            return false;
+        }
 
-        Map<String, Object> result = toolActivities.runTool(currentTool, toolDecision.getArgsOrEmpty());
-        toolResults.add(result);
-        conversationHistory.addMessage("tool_result", result);
-        promptQueue.add(AgentPromptGenerator.generateToolCompletionPrompt(currentTool, result));
+        Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Executing {} tools in parallel", invocations.size());
+        List<Promise<Map<String, Object>>> pending = invocations.stream()
+                .map(this::startTool)
+                .toList();
+        discardPrefetches();
+        List<Map<String, Object>> results = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            Map<String, Object> result = awaitToolResult(invocations.get(i).getTool(), pending.get(i));
+            results.add(result);
+            recordToolResult(invocations.get(i).getTool(), result);
+        }
+        promptQueue.add(AgentPromptGenerator.generateParallelToolCompletionPrompt(invocations, results));
         return false;
     }
 
+    /**
+     * Runs the remaining steps of a goal-declared chain, filling each step's arguments from earlier results. The LLM is
+     * consulted once at the end, or as soon as a step cannot be resolved or fails.
+     */
+    private void runToolChain(ToolChain chain, ToolInvocation trigger, Map<String, Object> triggerResult) {
+        List<ToolInvocation> invocations = new ArrayList<>(List.of(trigger));
+        List<Map<String, Object>> results = new ArrayList<>(List.of(triggerResult));
+        String stopReason = null;
+        for (ToolChainStep step : chain.getSteps()) {
+            Map<String, Object> args = mapStepArgs(step, results);
+            if (args == null) {
+                String missing = step.getArgumentMappings().values().stream()
+                        .filter(key -> findLatestValue(results, key) == null)
+                        .map(key -> "'" + key + "'")
+                        .collect(Collectors.joining(", "));
+                stopReason = step.getTool() + " needs " + missing + ", which no earlier result provided";
+                break;
+            }
+            Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Executing chained tool {}", step.getTool());
+            ToolInvocation invocation = new ToolInvocation(step.getTool(), args);
+            Map<String, Object> result = awaitToolResult(step.getTool(), startTool(invocation));
+            invocations.add(invocation);
+            results.add(result);
+            recordToolResult(step.getTool(), result);
+            if (ToolError.isError(result)) {
+                stopReason = step.getTool() + " failed: " + result.get("error");
+                break;
+            }
+        }
+        promptQueue.add(AgentPromptGenerator.generateToolChainCompletionPrompt(invocations, results, stopReason));
+    }
+
+    /**
+     * Starts a tool call, reusing a prefetched call with the same tool and arguments when one is pending or succeeded
+     * within {@link #PREFETCH_MAX_AGE}.
+     */
+    private Promise<Map<String, Object>> startTool(ToolInvocation invocation) {
+        Prefetch prefetch = prefetches.remove(prefetchKey(invocation.getTool(), invocation.getArgsOrEmpty()));
+        if (prefetch != null && Workflow.currentTimeMillis() - prefetch.startedAtMillis() > PREFETCH_MAX_AGE.toMillis()) {
+            prefetch.scope().cancel("Prefetched result expired");
+            prefetchCounter(invocation.getTool(), "agent.prefetch.expired").inc(1);
+        } else if (prefetch != null && !(prefetch.result().isCompleted() && prefetch.result().getFailure() != null)) {
+            prefetchCounter(invocation.getTool(), "agent.prefetch.hits").inc(1);
+            return prefetch.result();
+        }
+        return Async.function(toolStub(invocation.getTool())::runTool, invocation.getTool(), invocation.getArgsOrEmpty());
+    }
+
+    /**
+     * Waits for a tool call and turns a failure that outlasted the retry policy into a {@link ToolError} result, so the
+     * planner can explain it instead of the workflow failing.
+     */
+    private Map<String, Object> awaitToolResult(String toolName, Promise<Map<String, Object>> pending) {
+        try {
+            return pending.get();
+        } catch (ActivityFailure e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            Workflow.getLogger(AgentGoalWorkflowImpl.class).warn("Tool {} failed after retries: {}", toolName, cause.getMessage());
+            return new ToolError(toolName, ToolError.UNAVAILABLE, cause.getMessage(), true).toResult();
+        }
+    }
+
+    private void recordToolResult(String toolName, Map<String, Object> result) {
+        toolUsage.merge(toolName, new ConversationOutcome.ToolUsage(toolName, 1, ToolError.isError(result) ? 1 : 0),
+                ConversationOutcome.ToolUsage::plus);
+        conversationHistory.addMessage(MessageType.TOOL_RESULT, result);
+        schedulePrefetches(toolName, result);
+    }
+
+    /**
+     * Speculatively starts the side-effect-free follow-up calls the goal predicts after {@code toolName}, so their
+     * results are ready if the next confirmed decision asks for them.
+     */
+    private void schedulePrefetches(String toolName, Map<String, Object> result) {
+        if (goal == null) {
+            return;
+        }
+        for (ToolChain hint : goal.getPrefetchHints()) {
+            if (!toolName.equals(hint.getTrigger())) {
+                continue;
+            }
+            for (ToolChainStep step : hint.getSteps()) {
+                ToolDefinition definition = findToolDefinition(step.getTool());
+                Map<String, Object> args = mapStepArgs(step, List.of(result));
+                if (definition == null || !definition.isSideEffectFree() || args == null) {
+                    continue;
+                }
+                String key = prefetchKey(step.getTool(), args);
+                if (prefetches.containsKey(key)) {
+                    continue;
+                }
+                Workflow.getLogger(AgentGoalWorkflowImpl.class).info("Prefetching tool {}", step.getTool());
+                List<Promise<Map<String, Object>>> started = new ArrayList<>(1);
+                CancellationScope scope = Workflow.newCancellationScope(() -> started.add(
+                        Async.function(toolStub(step.getTool())::runTool, step.getTool(), args)));
+                scope.run();
+                prefetches.put(key, new Prefetch(step.getTool(), started.get(0), scope, Workflow.currentTimeMillis()));
+            }
+        }
+    }
+
+    /** Drops prefetched results the confirmed decision, goal switch or end of the conversation left unused. */
+    private void discardPrefetches() {
+        prefetches.values().forEach(prefetch -> {
+            prefetch.scope().cancel("Prefetched result not used");
+            prefetchCounter(prefetch.tool(), "agent.prefetch.misses").inc(1);
+        });
+        prefetches.clear();
+    }
+
+    private static Counter prefetchCounter(String toolName, String name) {
+        return Workflow.getMetricsScope().tagged(Map.of("tool", toolName)).counter(name);
+    }
+
+    private static String prefetchKey(String toolName, Map<String, Object> args) {
+        return toolName + new TreeMap<>(args);
+    }
+
+    private static Map<String, Object> mapStepArgs(ToolChainStep step, List<Map<String, Object>> results) {
+        Map<String, Object> args = new HashMap<>();
+        for (Map.Entry<String, String> mapping : step.getArgumentMappings().entrySet()) {
+            Object value = findLatestValue(results, mapping.getValue());
+            if (value == null) {
+                return null;
+            }
+            args.put(mapping.getKey(), value);
+        }
+        return args;
+    }
+
+    /**
+     * Renders the tool's response template in place of a planner call when the definition carries one. Returns
+     * {@code false} when the tool has no template or the result lacks a placeholder value.
+     */
+    private boolean summarizeLocally(String toolName, Map<String, Object> result) {
+        ToolDefinition definition = findToolDefinition(toolName);
+        if (definition == null || !definition.hasLocalSummary()) {
+            return false;
+        }
+        String summary = AgentPromptGenerator.renderToolResponse(definition.getResponseTemplate(), result);
+        if (summary == null) {
+            return false;
+        }
+        ToolDecision decision = new ToolDecision();
+        decision.setNext(definition.getNextStepRule());
+        decision.setResponse(summary);
+        this.toolDecision = decision;
+        addAgentMessage(decision.toRawMap());
+        goalCompleted = definition.getNextStepRule() == NextStep.DONE;
+        return true;
+    }
+
+    private ToolDefinition findToolDefinition(String toolName) {
+        if (goal == null) {
+            return null;
+        }
+        return goal.getTools().stream()
+                .filter(tool -> tool.getName().equals(toolName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Object findLatestValue(List<Map<String, Object>> results, String key) {
+        for (int i = results.size() - 1; i >= 0; i--) {
+            Object value = results.get(i).get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private ToolActivities toolStub(String toolName) {
+        ToolDefinition definition = findToolDefinition(toolName);
+        boolean local = definition != null && definition.getExecutionMode() == ToolExecutionMode.LOCAL_ACTIVITY;
+        return local ? localToolActivities : toolActivities;
+    }
+
     private AgentGoal ensureGoal(AgentGoal candidate) {
         return candidate != null ? candidate : createGoalSelectionGoal();
     }
@@ -272,13 +969,46 @@ public class AgentGoalWorkflowImpl implements AgentGoalWorkflow {
                 "agent: Happy to help! I can bring in our order tracking assistant. Are you trying to check a specific order?",
                 "user: Yes, order 102.",
                 "agent: Perfect. I'll hand things off to the order status assistant so we can look that up together."));
+        selection.setIdleTimeoutSeconds(Duration.ofMinutes(15).toSeconds());
         return selection;
     }
 
+    /**
+     * Checks the planned arguments against each tool's compiled schema and applies the coerced values to the decision.
+     * On the first invalid call, queues a prompt asking the planner to fix it and returns {@code null}.
+     */
+    private List<ToolInvocation> validateArgs(List<ToolInvocation> invocations) {
+        List<ToolInvocation> validated = new ArrayList<>(invocations.size());
+        for (ToolInvocation invocation : invocations) {
+            ToolDefinition definition = findToolDefinition(invocation.getTool());
+            if (definition == null) {
+                validated.add(invocation);
+                continue;
+            }
+            ArgumentSchema schema = argumentSchemas.computeIfAbsent(definition.getName(), name -> ArgumentSchema.compile(definition));
+            ArgumentSchema.Result result = schema.validate(invocation.getArgsOrEmpty());
+            if (!result.isValid()) {
+                promptQueue.add(AgentPromptGenerator.generateInvalidArgsPrompt(invocation.getTool(), result.errors()));
+                return null;
+            }
+            validated.add(new ToolInvocation(invocation.getTool(), result.args()));
+        }
+        if (toolDecision.getTools().isEmpty()) {
+            toolDecision.setArgs(validated.get(0).getArgs());
+        } else {
+            toolDecision.setTools(validated);
+        }
+        return validated;
+    }
+
     private List<String> findMissingArgs(Map<String, Object> args) {
         return args.entrySet().stream()
                 .filter(entry -> entry.getValue() == null)
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
+
+    private record Prefetch(String tool, Promise<Map<String, Object>> result, CancellationScope scope,
+                            long startedAtMillis) {
+    }
 }
@@ -0,0 +1,38 @@
+package io.temporal.agent.workflow;
+
+import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolEffect;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decides whether a planned set of tool calls has to wait for the user's confirmation. With confirmation enabled,
+ * calls that only read data can still run straight away when {@code autoConfirmSafeTools} is set; anything else, or
+ * a tool the goal does not define, keeps the confirmation step.
+ */
+final class ConfirmationPolicy {
+
+    private final boolean showConfirm;
+    private final boolean autoConfirmSafeTools;
+
+    ConfirmationPolicy(boolean showConfirm, boolean autoConfirmSafeTools) {
+        this.showConfirm = showConfirm;
+        this.autoConfirmSafeTools = autoConfirmSafeTools;
+    }
+
+    boolean requiresConfirmation(List<ToolDefinition> definitions) {
+        if (!showConfirm) {
+            return false;
+        }
+        if (!autoConfirmSafeTools || definitions.isEmpty()) {
+            return true;
+        }
+        return !definitions.stream().allMatch(definition -> Objects.nonNull(definition)
+                && definition.getEffect() == ToolEffect.READ_ONLY);
+    }
+
+    /** Whether skipping confirmation for these calls saved the user a round trip they would otherwise have made. */
+    boolean savesTurn(List<ToolDefinition> definitions) {
+        return showConfirm && !requiresConfirmation(definitions);
+    }
+}
@@ -456,30 +456,28 @@ function renderToolDecision() {
     }
     const next = decision.next || 'question';
     updateStatusNext(next);
-    if (next === 'confirm' && decision.tool) {
+    const calls = toolCalls(decision);
+    if (next === 'confirm' && calls.length > 0) {
         card.classList.remove('hidden');
         card.innerHTML = '';
         const heading = document.createElement('h3');
-        heading.textContent = `Confirm ${decision.tool}`;
+        heading.textContent = calls.length === 1
+            ? `Confirm ${calls[0].tool}`
+            : `Confirm ${calls.length} tool calls`;
         const summary = document.createElement('p');
-        summary.textContent = decision.response || 'The agent wants to run a tool.';
+        summary.textContent = decision.response
+            || (calls.length === 1 ? 'The agent wants to run a tool.' : 'The agent wants to run these tools together.');
         card.append(heading, summary);
-        const args = decision.args && typeof decision.args === 'object' ? decision.args : {};
-        if (Object.keys(args).length > 0) {
-            const list = document.createElement('dl');
-            list.className = 'tool-args';
-            Object.entries(args).forEach(([key, value]) => {
-                const dt = document.createElement('dt');
-                dt.textContent = key;
-                const dd = document.createElement('dd');
-                if (value && typeof value === 'object') {
-                    dd.textContent = JSON.stringify(value, null, 2);
-                } else {
-                    dd.textContent = value === null || value === undefined ? '' : String(value);
-                }
-                list.append(dt, dd);
-            });
-            card.appendChild(list);
+        for (const call of calls) {
+            if (calls.length > 1) {
+                const name = document.createElement('h4');
+                name.textContent = call.tool;
+                card.appendChild(name);
+            }
+            const list = renderToolArgs(call.args);
+            if (list) {
+                card.appendChild(list);
+            }
         }
         elements.confirmButton.disabled = false;
     } else if (next === 'done') {
@@ -497,6 +495,35 @@ function renderToolDecision() {
     }
 }
 
+// A decision carries either one call in tool/args or several independent calls in tools.
+function toolCalls(decision) {
+    if (Array.isArray(decision.tools) && decision.tools.length > 0) {
+        return decision.tools.filter((call) => call && call.tool);
+    }
+    return decision.tool ? [{ tool: decision.tool, args: decision.args }] : [];
+}
+
+function renderToolArgs(rawArgs) {
+    const args = rawArgs && typeof rawArgs === 'object' ? rawArgs : {};
+    if (Object.keys(args).length === 0) {
+        return null;
+    }
+    const list = document.createElement('dl');
+    list.className = 'tool-args';
+    Object.entries(args).forEach(([key, value]) => {
+        const dt = document.createElement('dt');
+        dt.textContent = key;
+        const dd = document.createElement('dd');
+        if (value && typeof value === 'object') {
+            dd.textContent = JSON.stringify(value, null, 2);
+        } else {
+            dd.textContent = value === null || value === undefined ? '' : String(value);
+        }
+        list.append(dt, dd);
+    });
+    return list;
+}
+
 function updateStatusGoal() {
     let label = '—';
     const goal = state.workflowId ? state.currentGoal : findGoal(state.selectedGoalId);
@@ -0,0 +1,90 @@
+package io.temporal.agent.activities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.model.conversation.ConversationMessage;
+import io.temporal.agent.model.conversation.MessageType;
+import io.temporal.agent.model.workflow.ContextTurn;
+import io.temporal.agent.model.workflow.LlmCallType;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PlannerContextCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PlannerContextCache cache = new PlannerContextCache(2, Duration.ofMinutes(10), clock::get);
+
+    @Test
+    void appendsNewMessagesToTheCachedContext() {
+        cache.render("wf", "run", turn(0, List.of(user("Where is order 102?")), "GOAL CONTEXT"));
+
+        String prompt = cache.render("wf", "run", turn(1, List.of(user("And order 103?")), null));
+
+        assertThat(prompt).contains("GOAL CONTEXT", "Where is order 102?", "And order 103?");
+    }
+
+    @Test
+    void retriedTurnReplacesTheMessagesItAddedBefore() {
+        cache.render("wf", "run", turn(0, List.of(user("first")), "GOAL CONTEXT"));
+        cache.render("wf", "run", turn(1, List.of(user("abandoned")), null));
+
+        String prompt = cache.render("wf", "run", turn(1, List.of(user("second")), null));
+
+        assertThat(prompt).contains("first", "second").doesNotContain("abandoned");
+    }
+
+    @Test
+    void missesWhenTheContextIsNotHeld() {
+        cache.render("wf", "run", turn(0, List.of(user("first")), "GOAL CONTEXT"));
+
+        assertThat(cache.render("wf", "run", turn(3, List.of(user("gap")), null))).isNull();
+        assertThat(cache.render("wf", "next-run", turn(1, List.of(user("new run")), null))).isNull();
+        assertThat(cache.render("other", "run", turn(0, List.of(user("no goal context")), null))).isNull();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedConversations() {
+        cache.render("a", "run", turn(0, List.of(), "A"));
+        cache.render("b", "run", turn(0, List.of(), "B"));
+        cache.render("a", "run", turn(0, List.of(), null));
+        cache.render("c", "run", turn(0, List.of(), "C"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.render("a", "run", turn(0, List.of(), null))).contains("A");
+        assertThat(cache.render("b", "run", turn(0, List.of(), null))).isNull();
+    }
+
+    @Test
+    void dropsConversationsUnusedForTheTtl() {
+        cache.render("idle", "run", turn(0, List.of(), "IDLE"));
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+        cache.render("active", "run", turn(0, List.of(), "ACTIVE"));
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertThat(cache.render("active", "run", turn(0, List.of(), null))).contains("ACTIVE");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.render("idle", "run", turn(0, List.of(), null))).isNull();
+    }
+
+    @Test
+    void invalidateDropsTheConversation() {
+        cache.render("wf", "run", turn(0, List.of(user("first")), "GOAL CONTEXT"));
+
+        cache.invalidate("wf");
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.render("wf", "run", turn(1, List.of(user("second")), null))).isNull();
+    }
+
+    private static ContextTurn turn(int baseSequence, List<ConversationMessage> messages, String goalContext) {
+        ContextTurn turn = new ContextTurn("prompt", LlmCallType.PLANNING, "goal", baseSequence, messages);
+        turn.setGoalContext(goalContext);
+        return turn;
+    }
+
+    private static ConversationMessage user(String text) {
+        return ConversationMessage.of(MessageType.USER, text);
+    }
+}
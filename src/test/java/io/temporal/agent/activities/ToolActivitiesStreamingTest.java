@@ -0,0 +1,126 @@
+package io.temporal.agent.activities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.agent.goals.GoalCatalog;
+import io.temporal.agent.goals.GoalRegistry;
+import io.temporal.agent.llm.LlmRoutingProperties;
+import io.temporal.agent.llm.LlmStreamingProperties;
+import io.temporal.agent.llm.ModelRouter;
+import io.temporal.agent.llm.ResponsesSessionClient;
+import io.temporal.agent.model.workflow.LlmCallType;
+import io.temporal.agent.model.workflow.ToolPromptInput;
+import io.temporal.agent.payload.ClaimCheck;
+import io.temporal.agent.payload.ClaimCheckProperties;
+import io.temporal.agent.service.ResponseStreamBroker;
+import io.temporal.agent.service.ResponseStreamBroker.ResponseStreamEvent;
+import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.testing.TestActivityEnvironment;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Flux;
+
+class ToolActivitiesStreamingTest {
+
+    // TestActivityEnvironment runs every activity as part of this workflow.
+    private static final String WORKFLOW_ID = "test-workflow-id";
+    private static final List<String> CHUNKS = List.of(
+            "{\"response\": \"Your or", "der has ship", "ped.\", \"next\": \"done\", ", "\"tool\": null, \"args\": {}}");
+
+    private final StreamingChatModel chatModel = new StreamingChatModel();
+    private final ResponseStreamBroker broker = new ResponseStreamBroker();
+    private TestActivityEnvironment environment;
+    private ToolActivities activities;
+
+    @BeforeEach
+    void setUp() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        ToolActivitiesImpl impl = new ToolActivitiesImpl(
+                ChatClient.builder(chatModel),
+                toolRegistry,
+                new ModelRouter(new LlmRoutingProperties(null, null, null, Map.of()), new SimpleMeterRegistry()),
+                broker,
+                new LlmStreamingProperties(true),
+                new GoalCatalog(new GoalRegistry(toolRegistry)),
+                new ClaimCheck(new ClaimCheckProperties(false, "", 16384, Duration.ofDays(7)), new ObjectMapper()),
+                new StaticListableBeanFactory().getBeanProvider(ResponsesSessionClient.class));
+        environment = TestActivityEnvironment.newInstance();
+        environment.registerActivitiesImplementations(impl);
+        activities = environment.newActivityStub(ToolActivities.class, ActivityOptions.newBuilder()
+                .setStartToCloseTimeout(Duration.ofSeconds(10))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        environment.close();
+    }
+
+    @Test
+    void streamingPlannerForwardsResponseDeltasAndParsesTheFinalDecision() {
+        List<ResponseStreamEvent> events = new CopyOnWriteArrayList<>();
+        broker.subscribe(WORKFLOW_ID, events::add);
+
+        Map<String, Object> decision = activities.agentToolPlanner(
+                new ToolPromptInput("Where is order 102?", "You are an order assistant.", LlmCallType.PLANNING, null));
+
+        assertThat(decision).containsEntry("next", "done").containsEntry("response", "Your order has shipped.");
+        assertThat(chatModel.streamCalls.get()).isEqualTo(1);
+        assertThat(chatModel.calls.get()).isZero();
+        assertThat(events.get(0).type()).isEqualTo(ResponseStreamEvent.START);
+        assertThat(events.get(events.size() - 1).type()).isEqualTo(ResponseStreamEvent.END);
+        assertThat(events.stream()
+                .filter(event -> ResponseStreamEvent.DELTA.equals(event.type()))
+                .map(ResponseStreamEvent::text)
+                .reduce("", String::concat))
+                .isEqualTo("Your order has shipped.");
+    }
+
+    @Test
+    void plannerWithoutSubscribersMakesABlockingCall() {
+        Map<String, Object> decision = activities.agentToolPlanner(
+                new ToolPromptInput("Where is order 102?", "You are an order assistant.", LlmCallType.PLANNING, null));
+
+        assertThat(decision).containsEntry("next", "done");
+        assertThat(chatModel.calls.get()).isEqualTo(1);
+        assertThat(chatModel.streamCalls.get()).isZero();
+    }
+
+    private static final class StreamingChatModel implements ChatModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger streamCalls = new AtomicInteger();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            return response(String.join("", CHUNKS));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            streamCalls.incrementAndGet();
+            return Flux.fromIterable(CHUNKS).map(StreamingChatModel::response);
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
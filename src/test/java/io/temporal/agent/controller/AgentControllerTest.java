@@ -71,4 +71,24 @@ class AgentControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Unknown goal"));
     }
+
+    @Test
+    void startWithPromptPassesPromptAndGreetingFlag() throws Exception {
+        when(agentService.startConversationWithPrompt(null, "goal_ecomm_list_orders", "Where is order 102?", true))
+                .thenReturn("workflow-id");
+
+        mockMvc.perform(post("/api/agent/start-with-prompt")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"goalId\":\"goal_ecomm_list_orders\",\"prompt\":\"Where is order 102?\",\"skipGreeting\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workflowId").value("workflow-id"));
+    }
+
+    @Test
+    void startWithPromptRequiresPrompt() throws Exception {
+        mockMvc.perform(post("/api/agent/start-with-prompt")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"goalId\":\"goal_ecomm_list_orders\"}"))
+                .andExpect(status().isBadRequest());
+    }
 }
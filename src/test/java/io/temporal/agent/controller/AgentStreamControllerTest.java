@@ -0,0 +1,75 @@
+package io.temporal.agent.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import io.temporal.agent.service.ResponseStreamBroker;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class AgentStreamControllerTest {
+
+    private final ResponseStreamBroker broker = new ResponseStreamBroker();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new AgentStreamController(broker)).build();
+    }
+
+    @Test
+    void streamsBrokerEventsAsServerSentEvents() throws Exception {
+        MvcResult result = openStream("wf-1");
+
+        assertThat(broker.hasSubscribers("wf-1")).isTrue();
+        broker.start("wf-1");
+        broker.delta("wf-1", "Your order has shipped.");
+        broker.end("wf-1");
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/event-stream");
+        assertThat(result.getResponse().getContentAsString())
+                .contains("event:start\n")
+                .contains("event:delta\ndata:Your order has shipped.\n\n")
+                .contains("event:end\n");
+    }
+
+    @Test
+    void completedStreamUnsubscribes() throws Exception {
+        MvcResult result = openStream("wf-1");
+
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onComplete(new AsyncEvent(asyncContext));
+        }
+
+        assertThat(broker.hasSubscribers("wf-1")).isFalse();
+    }
+
+    @Test
+    void timedOutStreamUnsubscribes() throws Exception {
+        MvcResult result = openStream("wf-1");
+
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        assertThat(asyncContext.getTimeout()).isEqualTo(30 * 60 * 1000L);
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        assertThat(broker.hasSubscribers("wf-1")).isFalse();
+        broker.delta("wf-1", "nobody is listening");
+    }
+
+    private MvcResult openStream(String workflowId) throws Exception {
+        return mockMvc.perform(get("/api/agent/{workflowId}/stream", workflowId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
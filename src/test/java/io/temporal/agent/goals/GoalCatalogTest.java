@@ -0,0 +1,115 @@
+package io.temporal.agent.goals;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.temporal.agent.config.PandadocProperties;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
+import io.temporal.agent.tools.EcommerceToolsConfiguration;
+import io.temporal.agent.tools.PandadocToolsConfiguration;
+import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.agent.tools.pandadoc.DefaultPandadocClient;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+class GoalCatalogTest {
+
+    private GoalRegistry goalRegistry;
+    private GoalCatalog goalCatalog;
+
+    @BeforeEach
+    void setup() {
+        ToolRegistry registry = new ToolRegistry();
+        new EcommerceToolsConfiguration(registry);
+        goalRegistry = new GoalRegistry(registry);
+        goalCatalog = new GoalCatalog(goalRegistry);
+    }
+
+    @Test
+    void sameContentResolvesToSameVersionAcrossCatalogs() {
+        GoalReference reference = goalCatalog.reference("goal_ecomm_order_status");
+        GoalReference rebuilt = new GoalCatalog(goalRegistry).reference("goal_ecomm_order_status");
+
+        assertThat(reference).isEqualTo(rebuilt);
+        assertThat(reference.version()).hasSize(16);
+        AgentGoal snapshot = goalCatalog.resolve(reference);
+        assertThat(snapshot.getId()).isEqualTo("goal_ecomm_order_status");
+        assertThat(snapshot.getTools()).extracting("name").containsExactly("GetOrder", "TrackPackage");
+        assertThat(snapshot).isNotSameAs(goalRegistry.findGoal("goal_ecomm_order_status"));
+    }
+
+    @Test
+    void changedGoalGetsNewVersionAndOldVersionStillResolves() {
+        GoalReference original = goalCatalog.reference("goal_ecomm_order_status");
+        String originalDescription = goalCatalog.resolve(original).getDescription();
+
+        goalRegistry.findGoal("goal_ecomm_order_status").setDescription("Only answer questions about refunds.");
+        GoalReference changed = goalCatalog.reference("goal_ecomm_order_status");
+
+        assertThat(changed.version()).isNotEqualTo(original.version());
+        assertThat(goalCatalog.resolve(changed).getDescription()).isEqualTo("Only answer questions about refunds.");
+        assertThat(goalCatalog.resolve(original).getDescription()).isEqualTo(originalDescription);
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        assertThat(goalCatalog.reference("goal_missing")).isNull();
+        assertThat(goalCatalog.find(new GoalReference("goal_ecomm_order_status", "0000000000000000"))).isNull();
+        assertThatThrownBy(() -> goalCatalog.resolve(new GoalReference("goal_ecomm_order_status", "0000000000000000")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("goal_ecomm_order_status@0000000000000000");
+    }
+
+    @Test
+    void publishedVersionsResolveWithoutTheGoalInTheRegistry() {
+        GoalReference reference = new GoalCatalog(applicationRegistry()).reference("goal_ecomm_order_status");
+
+        GoalCatalog emptyCatalog = new GoalCatalog(new GoalRegistry(new ToolRegistry()));
+
+        assertThat(emptyCatalog.reference("goal_ecomm_order_status")).isNull();
+        assertThat(emptyCatalog.resolve(reference).getTools()).extracting("name")
+                .containsExactly("GetOrder", "TrackPackage");
+    }
+
+    /**
+     * Guards that every goal the application registers ships as a published version, so workers on later builds
+     * can still resolve it. Run {@code gradle publishGoals} to write the missing snapshots.
+     */
+    @Test
+    void everyRegisteredGoalVersionIsPublished() throws IOException {
+        GoalRegistry registry = applicationRegistry();
+        GoalCatalog catalog = new GoalCatalog(registry);
+        String publishTo = System.getProperty("goalCatalog.publishTo");
+        List<GoalReference> missing = new ArrayList<>();
+        for (AgentGoal goal : registry.listGoals()) {
+            GoalReference reference = catalog.reference(goal);
+            if (catalog.isPublished(reference)) {
+                continue;
+            }
+            if (publishTo != null) {
+                Path file = Path.of(publishTo, goal.getId(), reference.version() + ".json");
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, GoalCatalog.canonicalJson(goal), StandardCharsets.UTF_8);
+            } else {
+                missing.add(reference);
+            }
+        }
+        assertThat(missing).as("goal versions without a published snapshot; run gradle publishGoals").isEmpty();
+    }
+
+    private static GoalRegistry applicationRegistry() {
+        ToolRegistry registry = new ToolRegistry();
+        new EcommerceToolsConfiguration(registry);
+        PandadocProperties properties = new PandadocProperties(null, "https://api.pandadoc.com/public/v1", 30);
+        new PandadocToolsConfiguration(registry, new DefaultPandadocClient(RestClient.builder(), properties));
+        return new GoalRegistry(registry);
+    }
+}
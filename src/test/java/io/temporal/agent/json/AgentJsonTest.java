@@ -0,0 +1,43 @@
+package io.temporal.agent.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
+import io.temporal.agent.model.workflow.NextStep;
+import io.temporal.agent.model.workflow.ToolDecision;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AgentJsonTest {
+
+    @Test
+    void readsPlannerResponsesIntoMaps() throws JsonProcessingException {
+        Map<String, Object> decision = AgentJson.readMap(
+                "{\"next\":\"confirm\",\"tool\":\"GetOrder\",\"args\":{\"order_id\":\"102\"}}");
+
+        assertThat(decision).containsEntry("tool", "GetOrder").containsEntry("args", Map.of("order_id", "102"));
+        assertThatThrownBy(() -> AgentJson.readMap("[1, 2]")).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void blackbirdMapperWritesTheSameJson() throws JsonProcessingException {
+        ToolDecision decision = new ToolDecision();
+        decision.setNext(NextStep.CONFIRM);
+        decision.setTool("GetOrder");
+        decision.setArgs(Map.of("order_id", "102"));
+        ConversationHistory history = new ConversationHistory();
+        history.addMessage(MessageType.USER, "Where is order 102?");
+        history.addMessage(MessageType.AGENT, decision.toRawMap());
+
+        ObjectMapper reflective = AgentJson.configure(new ObjectMapper(), false);
+        ObjectMapper blackbird = AgentJson.configure(new ObjectMapper(), true);
+
+        assertThat(blackbird.writeValueAsString(history)).isEqualTo(reflective.writeValueAsString(history));
+        assertThat(blackbird.readValue(reflective.writeValueAsString(decision), ToolDecision.class).getTool())
+                .isEqualTo("GetOrder");
+    }
+}
@@ -0,0 +1,120 @@
+package io.temporal.agent.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
+import io.temporal.agent.model.workflow.NextStep;
+import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.tools.EcommerceToolsConfiguration;
+import io.temporal.agent.tools.ToolRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Per-turn JSON cost on a 12-turn order conversation: rendering the history and the latest tool result into the
+ * prompt, parsing the planner response, and writing the history for the REST endpoint. Compares the previous
+ * per-call pattern (pretty writer built on each call, {@code readTree} plus {@code convertValue}) with the prebuilt
+ * readers and writers, with and without Blackbird. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class JsonTurnBenchmarkTest {
+
+    private static final int TURNS = 12;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+    private static final String PLANNER_RESPONSE = "{\"next\": \"confirm\", \"tool\": \"ListOrders\", "
+            + "\"args\": {\"email\": \"matt.murdock@nelsonmurdock.com\", \"limit\": 2}, "
+            + "\"response\": \"Let me look up the orders for matt.murdock@nelsonmurdock.com.\"}";
+
+    @Test
+    void prebuiltReadersAndWritersCutPerTurnCost() throws JsonProcessingException {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        Map<String, Object> result = toolRegistry.execute("ListOrders", Map.of("email", "matt.murdock@nelsonmurdock.com"));
+        ConversationHistory history = conversation(result);
+
+        double legacy = measure(new PerCallTurn(new ObjectMapper().findAndRegisterModules()), history, result);
+        double shared = measure(new PrebuiltTurn(AgentJson.configure(new ObjectMapper(), false)), history, result);
+        double blackbird = measure(new PrebuiltTurn(AgentJson.configure(new ObjectMapper(), true)), history, result);
+
+        System.out.printf("per-call mappers:       %.1f us per turn%n", legacy);
+        System.out.printf("prebuilt reader/writer: %.1f us per turn%n", shared);
+        System.out.printf("prebuilt + blackbird:   %.1f us per turn%n", blackbird);
+        assertThat(shared).isLessThan(legacy * 1.5);
+    }
+
+    private static double measure(Turn turn, ConversationHistory history, Map<String, Object> result)
+            throws JsonProcessingException {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += turn.run(history, result);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += turn.run(history, result);
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / ITERATIONS;
+        assertThat(sink).isPositive();
+        return micros;
+    }
+
+    private static ConversationHistory conversation(Map<String, Object> result) {
+        ConversationHistory history = new ConversationHistory();
+        for (int turn = 0; turn < TURNS; turn++) {
+            history.addMessage(MessageType.USER, "Show orders for matt.murdock@nelsonmurdock.com, turn " + turn);
+            ToolDecision decision = new ToolDecision();
+            decision.setNext(NextStep.CONFIRM);
+            decision.setTool("ListOrders");
+            decision.setArgs(Map.of("email", "matt.murdock@nelsonmurdock.com", "limit", 2));
+            decision.setResponse("Looking up your orders.");
+            history.addMessage(MessageType.AGENT, decision.toRawMap());
+            history.addMessage(MessageType.TOOL_RESULT, result);
+        }
+        return history;
+    }
+
+    private interface Turn {
+        /** Returns the number of characters produced so the JIT cannot drop the work. */
+        long run(ConversationHistory history, Map<String, Object> result) throws JsonProcessingException;
+    }
+
+    private record PerCallTurn(ObjectMapper mapper) implements Turn {
+        @Override
+        public long run(ConversationHistory history, Map<String, Object> result) throws JsonProcessingException {
+            String prompt = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(history)
+                    + mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result);
+            Map<?, ?> decision = mapper.convertValue(mapper.readTree(PLANNER_RESPONSE), Map.class);
+            byte[] response = mapper.writeValueAsBytes(history);
+            return prompt.length() + decision.size() + response.length;
+        }
+    }
+
+    private static final class PrebuiltTurn implements Turn {
+
+        private final ObjectWriter writer;
+        private final ObjectWriter prettyWriter;
+        private final ObjectReader mapReader;
+
+        private PrebuiltTurn(ObjectMapper mapper) {
+            this.writer = mapper.writer();
+            this.prettyWriter = mapper.writerWithDefaultPrettyPrinter();
+            this.mapReader = mapper.readerFor(new TypeReference<Map<String, Object>>() {
+            });
+        }
+
+        @Override
+        public long run(ConversationHistory history, Map<String, Object> result) throws JsonProcessingException {
+            String prompt = prettyWriter.writeValueAsString(history) + prettyWriter.writeValueAsString(result);
+            Map<String, Object> decision = mapReader.readValue(PLANNER_RESPONSE);
+            byte[] response = writer.writeValueAsBytes(history);
+            return prompt.length() + decision.size() + response.length;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package io.temporal.agent.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.openai.OpenAiChatOptions;
+
+class LlmEndpointPoolTest {
+
+    private final List<StubOpenAiServer> servers = new java.util.ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(StubOpenAiServer::stop);
+    }
+
+    @Test
+    void routesToEndpointWithLowestLatency() throws Exception {
+        StubOpenAiServer slow = startServer("slow", 150);
+        StubOpenAiServer fast = startServer("fast", 0);
+        try (LlmEndpointPool pool = pool(List.of(endpoint(slow), endpoint(fast)), 3)) {
+            for (int i = 0; i < 6; i++) {
+                pool.call(new Prompt("hello"));
+            }
+        }
+
+        assertThat(slow.calls.get()).isEqualTo(1);
+        assertThat(fast.calls.get()).isEqualTo(5);
+    }
+
+    @Test
+    void failsOverAndOpensCircuitAfterConsecutiveFailures() throws Exception {
+        StubOpenAiServer broken = startServer("broken", 0);
+        StubOpenAiServer healthy = startServer("healthy", 20);
+        broken.failing.set(true);
+        try (LlmEndpointPool pool = pool(List.of(endpoint(broken), endpoint(healthy)), 2)) {
+            String content = pool.call(new Prompt("hello")).getResult().getOutput().getText();
+            assertThat(content).isEqualTo("healthy");
+
+            pool.call(new Prompt("hello"));
+            LlmEndpoint brokenEndpoint = pool.getEndpoints().get(0);
+            assertThat(brokenEndpoint.getState()).isEqualTo(LlmEndpoint.CircuitState.OPEN);
+
+            pool.call(new Prompt("hello"));
+            assertThat(broken.calls.get()).isEqualTo(2);
+
+            broken.probeHealthy.set(false);
+            pool.probeOpenEndpoints();
+            assertThat(brokenEndpoint.getState()).isEqualTo(LlmEndpoint.CircuitState.OPEN);
+
+            broken.failing.set(false);
+            broken.probeHealthy.set(true);
+            pool.probeOpenEndpoints();
+            assertThat(brokenEndpoint.getState()).isEqualTo(LlmEndpoint.CircuitState.HALF_OPEN);
+
+            pool.call(new Prompt("hello"));
+            assertThat(brokenEndpoint.getState()).isEqualTo(LlmEndpoint.CircuitState.CLOSED);
+        }
+    }
+
+    @Test
+    void requestErrorsAreRethrownWithoutFailoverOrTrippingTheCircuit() throws Exception {
+        StubOpenAiServer rejecting = startServer("rejecting", 0);
+        StubOpenAiServer healthy = startServer("healthy", 20);
+        rejecting.rejectStatus.set(400);
+        try (LlmEndpointPool pool = pool(List.of(endpoint(rejecting), endpoint(healthy)), 1)) {
+            assertThatThrownBy(() -> pool.call(new Prompt("hello"))).isInstanceOf(NonTransientAiException.class);
+            assertThatThrownBy(() -> pool.call(new Prompt("hello"))).isInstanceOf(NonTransientAiException.class);
+
+            assertThat(pool.getEndpoints().get(0).getState()).isEqualTo(LlmEndpoint.CircuitState.CLOSED);
+            assertThat(rejecting.calls.get()).isEqualTo(2);
+            assertThat(healthy.calls.get()).isZero();
+        }
+    }
+
+    @Test
+    void hungProbeTimesOutAndKeepsCircuitOpen() throws Exception {
+        StubOpenAiServer hung = startServer("hung", 0);
+        hung.failing.set(true);
+        try (LlmEndpointPool pool = pool(List.of(endpoint(hung)), 1)) {
+            assertThatThrownBy(() -> pool.call(new Prompt("hello"))).isInstanceOf(RuntimeException.class);
+            LlmEndpoint endpoint = pool.getEndpoints().get(0);
+            assertThat(endpoint.getState()).isEqualTo(LlmEndpoint.CircuitState.OPEN);
+
+            hung.probeHangs.set(true);
+            long started = System.nanoTime();
+            pool.probeOpenEndpoints();
+
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+            assertThat(endpoint.getState()).isEqualTo(LlmEndpoint.CircuitState.OPEN);
+        }
+    }
+
+    @Test
+    void probeTimeoutStaysBelowTheProbeInterval() {
+        assertThat(LlmPoolConfiguration.probeTimeout(Duration.ofSeconds(4))).isEqualTo(Duration.ofSeconds(2));
+        assertThat(LlmPoolConfiguration.probeTimeout(Duration.ofSeconds(60))).isEqualTo(Duration.ofSeconds(5));
+        assertThat(LlmPoolConfiguration.probeTimeout(Duration.ZERO)).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void throwsWhenEveryEndpointIsOpen() throws Exception {
+        StubOpenAiServer broken = startServer("broken", 0);
+        broken.failing.set(true);
+        try (LlmEndpointPool pool = pool(List.of(endpoint(broken)), 1)) {
+            assertThatThrownBy(() -> pool.call(new Prompt("hello"))).isInstanceOf(RuntimeException.class);
+            assertThatThrownBy(() -> pool.call(new Prompt("hello")))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("No healthy LLM endpoints");
+        }
+    }
+
+    private LlmEndpointPool pool(List<LlmEndpoint> endpoints, int failureThreshold) {
+        return new LlmEndpointPool(endpoints, failureThreshold, Duration.ZERO, Duration.ZERO, 0.5);
+    }
+
+    private LlmEndpoint endpoint(StubOpenAiServer server) {
+        LlmPoolProperties.Endpoint endpoint = new LlmPoolProperties.Endpoint(
+                server.name, "http://localhost:" + server.port(), "test-key", 1, "stub-model");
+        return LlmPoolConfiguration.createEndpoint(endpoint, OpenAiChatOptions.builder().model("default-model").build(),
+                Duration.ofMillis(300));
+    }
+
+    private StubOpenAiServer startServer(String name, long delayMillis) throws IOException {
+        StubOpenAiServer server = new StubOpenAiServer(name, delayMillis);
+        servers.add(server);
+        return server;
+    }
+
+    private static final class StubOpenAiServer {
+
+        private final String name;
+        private final long delayMillis;
+        private final HttpServer server;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private final AtomicBoolean probeHealthy = new AtomicBoolean(true);
+        private final AtomicBoolean probeHangs = new AtomicBoolean();
+        private final AtomicInteger rejectStatus = new AtomicInteger();
+
+        private StubOpenAiServer(String name, long delayMillis) throws IOException {
+            this.name = name;
+            this.delayMillis = delayMillis;
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/v1/chat/completions", this::handleCompletion);
+            server.createContext("/v1/models", exchange -> {
+                if (probeHangs.get()) {
+                    try {
+                        Thread.sleep(3_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                respond(exchange, probeHealthy.get() ? 200 : 503, "{\"object\":\"list\",\"data\":[]}");
+            });
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handleCompletion(HttpExchange exchange) throws IOException {
+            calls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            if (rejectStatus.get() != 0) {
+                respond(exchange, rejectStatus.get(), "{\"error\":{\"message\":\"context length exceeded\"}}");
+                return;
+            }
+            if (failing.get()) {
+                respond(exchange, 500, "{\"error\":{\"message\":\"unavailable\"}}");
+                return;
+            }
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, """
+                    {"id":"chatcmpl-1","object":"chat.completion","created":1,"model":"stub-model",
+                     "choices":[{"index":0,"message":{"role":"assistant","content":"%s"},"finish_reason":"stop"}],
+                     "usage":{"prompt_tokens":1,"completion_tokens":1,"total_tokens":2}}
+                    """.formatted(name));
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.temporal.agent.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.temporal.agent.model.workflow.LlmCallType;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ModelRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ModelRouter router = new ModelRouter(
+            new LlmRoutingProperties("small-model", "router-model", "",
+                    Map.of("goal_pandadoc_automation", "large-model")),
+            meterRegistry);
+
+    @Test
+    void routesCallTypesAndGoalOverrides() {
+        assertThat(router.resolveModel(LlmCallType.VALIDATION, "goal_pandadoc_automation")).isEqualTo("small-model");
+        assertThat(router.resolveModel(LlmCallType.GOAL_SELECTION, "goal_choose_agent_type")).isEqualTo("router-model");
+        assertThat(router.resolveModel(LlmCallType.PLANNING, "goal_pandadoc_automation")).isEqualTo("large-model");
+        assertThat(router.resolveModel(LlmCallType.PLANNING, "goal_ecomm_order_status")).isNull();
+    }
+
+    @Test
+    void recordsLatencyPerRoute() {
+        router.recordLatency(LlmCallType.VALIDATION, "small-model", TimeUnit.MILLISECONDS.toNanos(12));
+        router.recordLatency(LlmCallType.PLANNING, null, TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertThat(meterRegistry.get("agent.llm.latency").tags("route", "validation", "model", "small-model").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("agent.llm.latency").tags("route", "planning", "model", "default").timer().count())
+                .isEqualTo(1);
+    }
+}
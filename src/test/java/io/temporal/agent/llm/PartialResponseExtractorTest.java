@@ -0,0 +1,41 @@
+package io.temporal.agent.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PartialResponseExtractorTest {
+
+    @Test
+    void emitsResponseTextAcrossChunkBoundaries() {
+        PartialResponseExtractor extractor = new PartialResponseExtractor();
+        String json = "```json\n{\"next\": \"question\", \"args\": {\"response\": \"nested\"}, "
+                + "\"response\": \"Hi \\\"Matt\\\",\\nyour order \\u0031\\u0030\\u0032 shipped.\", \"tool\": null}\n```";
+
+        StringBuilder streamed = new StringBuilder();
+        for (int i = 0; i < json.length(); i += 3) {
+            streamed.append(extractor.append(json.substring(i, Math.min(json.length(), i + 3))));
+        }
+
+        assertThat(streamed.toString()).isEqualTo("Hi \"Matt\",\nyour order 102 shipped.");
+        assertThat(extractor.isFinished()).isTrue();
+    }
+
+    @Test
+    void skipsMalformedUnicodeEscapes() {
+        PartialResponseExtractor extractor = new PartialResponseExtractor();
+
+        String streamed = extractor.append("{\"response\": \"Order \\u10zz ready\\u00\", \"next\": \"done\"}");
+
+        assertThat(streamed).isEqualTo("Order zz ready");
+        assertThat(extractor.isFinished()).isTrue();
+    }
+
+    @Test
+    void ignoresDocumentsWithoutResponseField() {
+        PartialResponseExtractor extractor = new PartialResponseExtractor();
+
+        assertThat(extractor.append("{\"validationResult\": true, \"validationFailedReason\": {}}")).isEmpty();
+        assertThat(extractor.isFinished()).isFalse();
+    }
+}
@@ -0,0 +1,117 @@
+package io.temporal.agent.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResponsesSessionClientTest {
+
+    private StubResponsesServer server;
+    private ResponsesSessionClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubResponsesServer();
+        client = new ResponsesSessionClient("http://localhost:" + server.port(), "test-key", "stub-model");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void chainedTurnSendsOnlyTheNewInput() {
+        ResponsesSessionClient.Reply first = client.create(null, "rules", "Where is order 102?", null);
+        ResponsesSessionClient.Reply second = client.create("gpt-4o", "rules", "And order 103?", first.id());
+
+        assertThat(second.id()).isNotEqualTo(first.id());
+        assertThat(second.content()).isEqualTo("{\"turns\":2}");
+        JsonNode request = server.requests.get(1);
+        assertThat(request.get("previous_response_id").asText()).isEqualTo(first.id());
+        assertThat(request.get("input").asText()).isEqualTo("And order 103?");
+        assertThat(request.get("model").asText()).isEqualTo("gpt-4o");
+        assertThat(server.requests.get(0).get("model").asText()).isEqualTo("stub-model");
+        assertThat(server.requests.get(0).has("previous_response_id")).isFalse();
+    }
+
+    @Test
+    void unknownPreviousResponseIsReportedAsLostSession() {
+        assertThatThrownBy(() -> client.create(null, "rules", "Hello", "resp_expired"))
+                .isInstanceOf(ProviderSessionNotFoundException.class)
+                .hasMessageContaining("resp_expired");
+    }
+
+    /** Keeps each stored response's conversation and answers with the number of turns it has seen. */
+    private static final class StubResponsesServer {
+
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final HttpServer server;
+        private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+        private final Map<String, List<String>> conversations = new ConcurrentHashMap<>();
+
+        private StubResponsesServer() throws IOException {
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/v1/responses", this::handle);
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            JsonNode request = mapper.readTree(exchange.getRequestBody());
+            requests.add(request);
+            List<String> conversation = new ArrayList<>();
+            if (request.hasNonNull("previous_response_id")) {
+                List<String> previous = conversations.get(request.get("previous_response_id").asText());
+                if (previous == null) {
+                    respond(exchange, 404, "{\"error\":{\"code\":\"previous_response_not_found\"}}");
+                    return;
+                }
+                conversation.addAll(previous);
+            }
+            conversation.add(request.get("input").asText());
+            String id = "resp_" + (conversations.size() + 1);
+            conversations.put(id, conversation);
+
+            ObjectNode response = mapper.createObjectNode().put("id", id);
+            response.putArray("output").addObject().put("type", "message")
+                    .putArray("content").addObject()
+                    .put("type", "output_text")
+                    .put("text", "{\"turns\":" + conversation.size() + "}");
+            respond(exchange, 200, mapper.writeValueAsString(response));
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.temporal.agent.payload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.goals.GoalRegistry;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.workflow.AgentGoalWorkflowParams;
+import io.temporal.agent.model.workflow.CombinedInput;
+import io.temporal.agent.model.workflow.NextStep;
+import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.model.workflow.ValidationInput;
+import io.temporal.agent.tools.EcommerceToolsConfiguration;
+import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Serialized size and encode/decode time of the JSON and Smile converters on the objects a multi-turn order
+ * conversation passes through Temporal: the workflow input, validation inputs carrying the history, planner decisions
+ * and raw tool results. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class BinaryPayloadBenchmarkTest {
+
+    private static final int TURNS = 12;
+    private static final int WARMUP = 100;
+    private static final int ROUNDS = 500;
+
+    @Test
+    void smileIsSmallerAndFasterThanJson() {
+        List<Object> values = recordConversationValues();
+        Stats json = measure(DefaultDataConverter.STANDARD_INSTANCE, values);
+        Stats smile = measure(new DefaultDataConverter(SmilePayloadConverter.withStandardConverters(true)), values);
+
+        System.out.printf("payloads=%d%n", values.size());
+        System.out.printf("json:  %d bytes encode=%.1f us decode=%.1f us per conversation%n",
+                json.bytes(), json.encodeMicros(), json.decodeMicros());
+        System.out.printf("smile: %d bytes encode=%.1f us decode=%.1f us per conversation (%.0f%% of json size)%n",
+                smile.bytes(), smile.encodeMicros(), smile.decodeMicros(), 100.0 * smile.bytes() / json.bytes());
+        assertThat(smile.bytes()).isLessThan(json.bytes());
+    }
+
+    private static Stats measure(DataConverter converter, List<Object> values) {
+        long bytes = 0;
+        for (Object value : values) {
+            bytes += converter.toPayload(value).orElseThrow().getData().size();
+        }
+        for (int i = 0; i < WARMUP; i++) {
+            roundTrip(converter, values);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            List<Payload> payloads = values.stream().map(value -> converter.toPayload(value).orElseThrow()).toList();
+            long encodedAt = System.nanoTime();
+            for (int j = 0; j < payloads.size(); j++) {
+                Class<?> type = values.get(j).getClass();
+                converter.fromPayload(payloads.get(j), type, type);
+            }
+            encodeNanos += encodedAt - start;
+            decodeNanos += System.nanoTime() - encodedAt;
+        }
+        return new Stats(bytes, encodeNanos / 1e3 / ROUNDS, decodeNanos / 1e3 / ROUNDS);
+    }
+
+    private static void roundTrip(DataConverter converter, List<Object> values) {
+        for (Object value : values) {
+            converter.fromPayload(converter.toPayload(value).orElseThrow(), value.getClass(), value.getClass());
+        }
+    }
+
+    private static List<Object> recordConversationValues() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_list_orders");
+
+        List<Object> values = new ArrayList<>();
+        values.add(new CombinedInput(new AgentGoalWorkflowParams(), goal));
+        ConversationHistory history = new ConversationHistory();
+        for (int turn = 0; turn < TURNS; turn++) {
+            String prompt = "Show orders for matt.murdock@nelsonmurdock.com, turn " + turn;
+            history.addMessage(MessageType.USER, prompt);
+            values.add(new ValidationInput(prompt, history, goal));
+
+            ToolDecision decision = new ToolDecision();
+            decision.setNext(NextStep.CONFIRM);
+            decision.setTool("ListOrders");
+            decision.setArgs(Map.of("email", "matt.murdock@nelsonmurdock.com", "limit", 2));
+            decision.setResponse("Looking up your orders.");
+            values.add(decision);
+            history.addMessage(MessageType.AGENT, decision.toRawMap());
+
+            Map<String, Object> result = toolRegistry.execute("ListOrders", Map.of("email", "matt.murdock@nelsonmurdock.com"));
+            values.add(result);
+            history.addMessage(MessageType.TOOL_RESULT, result);
+        }
+        values.add(history);
+        return values;
+    }
+
+    private record Stats(long bytes, double encodeMicros, double decodeMicros) {
+    }
+}
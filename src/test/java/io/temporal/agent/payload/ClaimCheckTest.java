@@ -0,0 +1,127 @@
+package io.temporal.agent.payload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClaimCheckTest {
+
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    @TempDir
+    Path blobDirectory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void largeResultKeepsScalarsInlineAndStoresListsAsReferences() throws Exception {
+        ClaimCheck claimCheck = new ClaimCheck(new ClaimCheckProperties(true, blobDirectory.toString(), 1024, RETENTION), objectMapper);
+        Map<String, Object> result = Map.of("email", "matt.murdock@nelsonmurdock.com", "orders", orders(40));
+
+        Map<String, Object> reduced = claimCheck.externalize(result);
+
+        assertThat(reduced).containsEntry("email", "matt.murdock@nelsonmurdock.com");
+        assertThat((String) reduced.get("orders")).matches(BlobStore.REFERENCE.pattern());
+        assertThat(claimCheck.externalize(result)).isEqualTo(reduced);
+
+        String prompt = "### The 'ListOrders' tool completed successfully with " + objectMapper.writeValueAsString(reduced);
+        Map<?, ?> restored = objectMapper.readValue(claimCheck.resolve(prompt).substring(prompt.indexOf('{')), Map.class);
+        assertThat(restored).isEqualTo(objectMapper.readValue(objectMapper.writeValueAsString(result), Map.class));
+    }
+
+    @Test
+    void smallOrDisabledResultsAreUnchanged() {
+        Map<String, Object> small = Map.of("order_id", "102", "status", "shipped");
+        Map<String, Object> large = Map.of("orders", orders(40));
+
+        assertThat(new ClaimCheck(new ClaimCheckProperties(true, blobDirectory.toString(), 1024, RETENTION), objectMapper)
+                .externalize(small)).isSameAs(small);
+        assertThat(new ClaimCheck(new ClaimCheckProperties(false, blobDirectory.toString(), 1024, RETENTION), objectMapper)
+                .externalize(large)).isSameAs(large);
+    }
+
+    @Test
+    void missingBlobLeavesReferenceInPlace() {
+        ClaimCheck claimCheck = new ClaimCheck(new ClaimCheckProperties(true, blobDirectory.toString(), 1024, RETENTION), objectMapper);
+        String text = "{\"orders\": \"blob://sha256/" + "0".repeat(64) + "\"}";
+
+        assertThat(claimCheck.resolve(text)).isEqualTo(text);
+    }
+
+    @Test
+    void enablingWithoutSharedDirectoryIsRefused() {
+        assertThatThrownBy(() -> new ClaimCheck(new ClaimCheckProperties(true, "", 1024, RETENTION), objectMapper))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("AGENT_BLOB_DIR");
+    }
+
+    @Test
+    void historyReferencesAreResolvedForClients() {
+        ClaimCheck claimCheck = new ClaimCheck(new ClaimCheckProperties(true, blobDirectory.toString(), 1024, RETENTION), objectMapper);
+        List<Map<String, Object>> orders = orders(40);
+        ConversationHistory history = new ConversationHistory();
+        history.addMessage(MessageType.USER, "show my orders");
+        history.addMessage(MessageType.TOOL_RESULT, Map.of("tool", "ListOrders",
+                "result", claimCheck.externalize(Map.of("email", "matt.murdock@nelsonmurdock.com", "orders", orders))));
+
+        ConversationHistory resolved = claimCheck.resolveHistory(history);
+
+        assertThat(resolved.getMessages()).hasSize(2);
+        assertThat(resolved.getMessages().get(0).response()).isEqualTo("show my orders");
+        Map<?, ?> toolResult = (Map<?, ?>) ((Map<?, ?>) resolved.getMessages().get(1).response()).get("result");
+        assertThat(toolResult.get("orders")).isEqualTo(orders);
+        assertThat((String) ((Map<?, ?>) ((Map<?, ?>) history.getMessages().get(1).response()).get("result")).get("orders"))
+                .matches(BlobStore.REFERENCE.pattern());
+    }
+
+    @Test
+    void sweepDeletesOnlyBlobsUnusedForTheRetentionPeriod() throws Exception {
+        ClaimCheck claimCheck = new ClaimCheck(new ClaimCheckProperties(true, blobDirectory.toString(), 1024, RETENTION), objectMapper);
+        BlobStore blobStore = new BlobStore(blobDirectory);
+        String stale = blobStore.put("[\"stale\"]".getBytes(StandardCharsets.UTF_8));
+        String fresh = blobStore.put("[\"fresh\"]".getBytes(StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.walk(blobDirectory)) {
+            files.filter(Files::isRegularFile)
+                    .filter(path -> stale.endsWith(path.getFileName().toString()))
+                    .forEach(path -> setModified(path, Instant.now().minus(Duration.ofDays(8))));
+        }
+
+        assertThat(claimCheck.sweep(RETENTION)).isEqualTo(1);
+        assertThat(blobStore.read(stale)).isNull();
+        assertThat(blobStore.read(fresh)).isEqualTo("[\"fresh\"]");
+        claimCheck.close();
+    }
+
+    private static void setModified(Path path, Instant time) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(time));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static List<Map<String, Object>> orders(int count) {
+        List<Map<String, Object>> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(Map.of("id", String.valueOf(100 + i), "summary", "Order item " + i, "status", "shipped"));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,80 @@
+package io.temporal.agent.payload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodecException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class Lz4PayloadCodecTest {
+
+    private final Lz4PayloadCodec codec = new Lz4PayloadCodec(1024);
+
+    @Test
+    void compressesLargePayloadsAndRestoresThem() {
+        Payload original = DefaultDataConverter.STANDARD_INSTANCE.toPayload("order status ".repeat(500)).orElseThrow();
+
+        Payload encoded = codec.encode(List.of(original)).get(0);
+
+        assertThat(encoded.getMetadataMap().get(EncodingKeys.METADATA_ENCODING_KEY).toStringUtf8())
+                .isEqualTo(Lz4PayloadCodec.ENCODING);
+        assertThat(encoded.getSerializedSize()).isLessThan(original.getSerializedSize() / 10);
+        assertThat(codec.decode(List.of(encoded))).containsExactly(original);
+    }
+
+    @Test
+    void leavesSmallAndIncompressiblePayloadsUntouched() {
+        Payload small = DefaultDataConverter.STANDARD_INSTANCE.toPayload("hello").orElseThrow();
+        byte[] noise = new byte[4096];
+        new Random(7).nextBytes(noise);
+        Payload random = Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8("binary/plain"))
+                .setData(ByteString.copyFrom(noise))
+                .build();
+
+        assertThat(codec.encode(List.of(small, random))).containsExactly(small, random);
+    }
+
+    @Test
+    void decodesPayloadsWrittenWithoutTheCodec() {
+        Payload plain = DefaultDataConverter.STANDARD_INSTANCE.toPayload("written before compression".repeat(100))
+                .orElseThrow();
+
+        assertThat(codec.decode(List.of(plain))).containsExactly(plain);
+    }
+
+    @Test
+    void rejectsDeclaredLengthsTheCompressedDataCannotProduce() {
+        Payload oversized = compressed(ByteBuffer.allocate(Integer.BYTES + 8).putInt(Integer.MAX_VALUE).array());
+        Payload negative = compressed(ByteBuffer.allocate(Integer.BYTES + 8).putInt(-1).array());
+        Payload truncated = compressed(new byte[2]);
+
+        for (Payload payload : List.of(oversized, negative, truncated)) {
+            assertThatThrownBy(() -> codec.decode(List.of(payload))).isInstanceOf(PayloadCodecException.class);
+        }
+    }
+
+    @Test
+    void rejectsCorruptCompressedData() {
+        Payload original = DefaultDataConverter.STANDARD_INSTANCE.toPayload("order status ".repeat(500)).orElseThrow();
+        byte[] data = codec.encode(List.of(original)).get(0).getData().toByteArray();
+        byte[] corrupt = new byte[data.length / 2];
+        System.arraycopy(data, 0, corrupt, 0, corrupt.length);
+
+        assertThatThrownBy(() -> codec.decode(List.of(compressed(corrupt)))).isInstanceOf(PayloadCodecException.class);
+    }
+
+    private static Payload compressed(byte[] data) {
+        return Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8(Lz4PayloadCodec.ENCODING))
+                .setData(ByteString.copyFrom(data))
+                .build();
+    }
+}
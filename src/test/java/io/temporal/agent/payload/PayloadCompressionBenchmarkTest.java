@@ -0,0 +1,98 @@
+package io.temporal.agent.payload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.goals.GoalRegistry;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.workflow.LlmCallType;
+import io.temporal.agent.model.workflow.NextStep;
+import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.model.workflow.ToolPromptInput;
+import io.temporal.agent.model.workflow.ValidationInput;
+import io.temporal.agent.prompt.AgentPromptGenerator;
+import io.temporal.agent.tools.EcommerceToolsConfiguration;
+import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compression ratio and CPU cost of {@link Lz4PayloadCodec} on the payloads a multi-turn order conversation writes to
+ * history: planner inputs with the full prompt, validation inputs with the history, and tool results. Run with
+ * {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class PayloadCompressionBenchmarkTest {
+
+    private static final int TURNS = 12;
+    private static final int ROUNDS = 200;
+
+    @Test
+    void lz4ShrinksConversationPayloads() {
+        List<Payload> payloads = recordConversationPayloads();
+        Lz4PayloadCodec codec = new Lz4PayloadCodec(2048);
+
+        long rawBytes = payloads.stream().mapToLong(Payload::getSerializedSize).sum();
+        List<Payload> encoded = codec.encode(payloads);
+        long encodedBytes = encoded.stream().mapToLong(Payload::getSerializedSize).sum();
+        assertThat(codec.decode(encoded)).isEqualTo(payloads);
+
+        for (int i = 0; i < ROUNDS / 10; i++) {
+            codec.decode(codec.encode(payloads));
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            List<Payload> round = codec.encode(payloads);
+            long encodedAt = System.nanoTime();
+            codec.decode(round);
+            encodeNanos += encodedAt - start;
+            decodeNanos += System.nanoTime() - encodedAt;
+        }
+        double megabytes = rawBytes * (double) ROUNDS / (1024 * 1024);
+
+        System.out.printf("payloads=%d raw=%d bytes lz4=%d bytes ratio=%.2fx%n",
+                payloads.size(), rawBytes, encodedBytes, (double) rawBytes / encodedBytes);
+        System.out.printf("encode=%.1f MB/s decode=%.1f MB/s (%.1f us per conversation encode)%n",
+                megabytes / (encodeNanos / 1e9), megabytes / (decodeNanos / 1e9), encodeNanos / 1e3 / ROUNDS);
+        assertThat(encodedBytes).isLessThan(rawBytes / 2);
+    }
+
+    private static List<Payload> recordConversationPayloads() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_list_orders");
+        DataConverter converter = DefaultDataConverter.STANDARD_INSTANCE;
+
+        List<Payload> payloads = new ArrayList<>();
+        ConversationHistory history = new ConversationHistory();
+        for (int turn = 0; turn < TURNS; turn++) {
+            String prompt = "Show orders for matt.murdock@nelsonmurdock.com, turn " + turn;
+            history.addMessage(MessageType.USER, prompt);
+            payloads.add(converter.toPayload(new ValidationInput(prompt, history, goal)).orElseThrow());
+
+            ToolDecision decision = new ToolDecision();
+            decision.setNext(NextStep.CONFIRM);
+            decision.setTool("ListOrders");
+            decision.setArgs(Map.of("email", "matt.murdock@nelsonmurdock.com", "limit", 2));
+            decision.setResponse("Looking up your orders.");
+            String context = AgentPromptGenerator.generateGenAiPrompt(goal, history, false, decision, null);
+            payloads.add(converter.toPayload(
+                    new ToolPromptInput(prompt, context, LlmCallType.PLANNING, goal.getId())).orElseThrow());
+            history.addMessage(MessageType.AGENT, decision.toRawMap());
+
+            Map<String, Object> result = toolRegistry.execute("ListOrders", Map.of("email", "matt.murdock@nelsonmurdock.com"));
+            payloads.add(converter.toPayload(result).orElseThrow());
+            history.addMessage(MessageType.TOOL_RESULT, result);
+        }
+        return payloads;
+    }
+}
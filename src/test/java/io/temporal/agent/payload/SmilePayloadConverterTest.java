@@ -0,0 +1,81 @@
+package io.temporal.agent.payload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.goals.GoalRegistry;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.workflow.NextStep;
+import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.model.workflow.ValidationInput;
+import io.temporal.agent.tools.EcommerceToolsConfiguration;
+import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SmilePayloadConverterTest {
+
+    private final DataConverter json = DefaultDataConverter.STANDARD_INSTANCE;
+    private final DataConverter smile = new DefaultDataConverter(SmilePayloadConverter.withStandardConverters(true));
+    private final DataConverter smileReadOnly = new DefaultDataConverter(SmilePayloadConverter.withStandardConverters(false));
+
+    @Test
+    void writesModelTypesAsSmileAndReadsThemBack() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_order_status");
+        ConversationHistory history = new ConversationHistory();
+        history.addMessage(MessageType.USER, "Where is order 102?");
+        history.addMessage(MessageType.TOOL_RESULT, toolRegistry.execute("GetOrder", Map.of("order_id", "102")));
+        ValidationInput input = new ValidationInput("Where is order 102?", history, goal);
+
+        Payload payload = smile.toPayload(input).orElseThrow();
+        ValidationInput restored = smile.fromPayload(payload, ValidationInput.class, ValidationInput.class);
+
+        assertThat(encoding(payload)).isEqualTo(SmilePayloadConverter.ENCODING);
+        assertThat(payload.getData().size()).isLessThan(json.toPayload(input).orElseThrow().getData().size());
+        assertThat(json.toPayload(restored)).isEqualTo(json.toPayload(input));
+    }
+
+    @Test
+    void stringsStayJson() {
+        assertThat(encoding(smile.toPayload("hello").orElseThrow())).isEqualTo("json/plain");
+    }
+
+    @Test
+    void readsJsonPayloadsWrittenBeforeTheSwitch() {
+        ToolDecision decision = new ToolDecision();
+        decision.setNext(NextStep.CONFIRM);
+        decision.setTool("GetOrder");
+        decision.setArgs(Map.of("order_id", "102"));
+        Payload written = json.toPayload(decision).orElseThrow();
+
+        ToolDecision restored = smile.fromPayload(written, ToolDecision.class, ToolDecision.class);
+
+        assertThat(restored.getTool()).isEqualTo("GetOrder");
+        assertThat(restored.getArgs()).containsEntry("order_id", "102");
+    }
+
+    @Test
+    void readsSmileWithWritingTurnedOff() {
+        ToolDecision decision = new ToolDecision();
+        decision.setNext(NextStep.CONFIRM);
+        decision.setTool("GetOrder");
+        decision.setArgs(Map.of("order_id", "102"));
+        Payload written = smile.toPayload(decision).orElseThrow();
+
+        ToolDecision restored = smileReadOnly.fromPayload(written, ToolDecision.class, ToolDecision.class);
+
+        assertThat(restored.getTool()).isEqualTo("GetOrder");
+        assertThat(encoding(smileReadOnly.toPayload(decision).orElseThrow())).isEqualTo("json/plain");
+    }
+
+    private static String encoding(Payload payload) {
+        return payload.getMetadataMap().get(EncodingKeys.METADATA_ENCODING_KEY).toStringUtf8();
+    }
+}
@@ -6,7 +6,10 @@ import io.temporal.agent.model.conversation.ConversationHistory;
 import io.temporal.agent.model.tools.AgentGoal;
 import io.temporal.agent.model.tools.ToolArgument;
 import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolError;
+import io.temporal.agent.model.workflow.ToolInvocation;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 
 class AgentPromptGeneratorTest {
@@ -28,5 +31,32 @@ class AgentPromptGeneratorTest {
         String prompt = AgentPromptGenerator.generateGenAiPrompt(goal, history, false, null, null);
         assertThat(prompt).contains("ExampleTool");
         assertThat(prompt).contains("MANDATORY: Your response must be ONLY valid JSON with NO additional text.");
+        assertThat(prompt).contains("Use either 'tool'/'args' for a single call or 'tools' for several calls, never both");
+    }
+
+    @Test
+    void rendersToolResponseTemplateFromResult() {
+        String template = "Order {id} is {status}.";
+
+        assertThat(AgentPromptGenerator.renderToolResponse(template, Map.of("id", "102", "status", "shipped")))
+                .isEqualTo("Order 102 is shipped.");
+        assertThat(AgentPromptGenerator.renderToolResponse(template, Map.of("id", "102"))).isNull();
+    }
+
+    @Test
+    void parallelPromptReportsFailedCallsAsFailures() {
+        List<ToolInvocation> invocations = List.of(
+                new ToolInvocation("GetOrder", Map.of("order_id", "101")),
+                new ToolInvocation("GetOrder", Map.of("order_id", "999")));
+        Map<String, Object> failure = new ToolError("GetOrder", ToolError.REJECTED, "Order 999 not found", false).toResult();
+
+        String mixed = AgentPromptGenerator.generateParallelToolCompletionPrompt(invocations,
+                List.of(Map.of("order_id", "101", "status", "shipped"), failure));
+        String allFailed = AgentPromptGenerator.generateParallelToolCompletionPrompt(invocations, List.of(failure, failure));
+
+        assertThat(mixed).startsWith("### 2 tool calls finished; 1 completed successfully and 1 failed:")
+                .contains("failed with", "Order 999 not found", "Running it again with the same args will fail the same way")
+                .doesNotContain("completed successfully:");
+        assertThat(allFailed).startsWith("### 2 tool calls failed:");
     }
 }
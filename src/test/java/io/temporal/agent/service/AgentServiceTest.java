@@ -4,13 +4,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.temporal.agent.config.TemporalProperties;
+import io.temporal.agent.goals.GoalCatalog;
 import io.temporal.agent.goals.GoalRegistry;
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.payload.ClaimCheck;
+import io.temporal.agent.payload.ClaimCheckProperties;
 import io.temporal.agent.workflow.AgentGoalWorkflow;
 import io.temporal.api.common.v1.WorkflowExecution;
 import io.temporal.client.WorkflowClient;
@@ -18,6 +24,7 @@ import io.temporal.client.WorkflowNotFoundException;
 import io.temporal.client.WorkflowQueryRejectedException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,7 +51,8 @@ class AgentServiceTest {
 
     @BeforeEach
     void setUp() {
-        agentService = new AgentService(workflowClient, temporalProperties, goalRegistry);
+        agentService = new AgentService(workflowClient, temporalProperties, goalRegistry, new GoalCatalog(goalRegistry),
+                new ClaimCheck(new ClaimCheckProperties(false, "", 16384, Duration.ofDays(7)), new ObjectMapper()));
     }
 
     @Test
@@ -87,6 +95,17 @@ class AgentServiceTest {
                 .hasMessageContaining(workflowId);
     }
 
+    @Test
+    void sendPromptOnlySignalsTheWorkflow() {
+        String workflowId = "wf-id";
+        when(workflowClient.newWorkflowStub(eq(AgentGoalWorkflow.class), eq(workflowId))).thenReturn(workflowStub);
+
+        agentService.sendPrompt(workflowId, "hello");
+
+        verify(workflowStub).submitUserPrompt("hello");
+        verifyNoMoreInteractions(workflowStub);
+    }
+
     @Test
     void resolveInitialGoalDefaultsToSelectionGoalWhenAvailable() throws Exception {
         AgentGoal selectionGoal = new AgentGoal();
@@ -0,0 +1,80 @@
+package io.temporal.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.service.ResponseStreamBroker.ResponseStreamEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ResponseStreamBrokerTest {
+
+    private final ResponseStreamBroker broker = new ResponseStreamBroker();
+
+    @Test
+    void subscribersReceiveEventsOfTheirConversationInOrder() {
+        List<ResponseStreamEvent> received = new ArrayList<>();
+        List<ResponseStreamEvent> other = new ArrayList<>();
+        broker.subscribe("wf-1", received::add);
+        broker.subscribe("wf-2", other::add);
+
+        broker.start("wf-1");
+        broker.delta("wf-1", "Your order ");
+        broker.delta("wf-1", "has shipped.");
+        broker.end("wf-1");
+
+        assertThat(received).containsExactly(
+                new ResponseStreamEvent(ResponseStreamEvent.START, ""),
+                new ResponseStreamEvent(ResponseStreamEvent.DELTA, "Your order "),
+                new ResponseStreamEvent(ResponseStreamEvent.DELTA, "has shipped."),
+                new ResponseStreamEvent(ResponseStreamEvent.END, ""));
+        assertThat(other).isEmpty();
+    }
+
+    @Test
+    void unsubscribeStopsDeliveryAndForgetsTheConversation() {
+        List<ResponseStreamEvent> first = new ArrayList<>();
+        List<ResponseStreamEvent> second = new ArrayList<>();
+        Runnable unsubscribeFirst = broker.subscribe("wf", first::add);
+        Runnable unsubscribeSecond = broker.subscribe("wf", second::add);
+
+        unsubscribeFirst.run();
+        broker.delta("wf", "hello");
+
+        assertThat(first).isEmpty();
+        assertThat(second).extracting(ResponseStreamEvent::text).containsExactly("hello");
+        assertThat(broker.hasSubscribers("wf")).isTrue();
+
+        unsubscribeSecond.run();
+        unsubscribeSecond.run();
+        assertThat(broker.hasSubscribers("wf")).isFalse();
+        assertThat(broker.hasSubscribers(null)).isFalse();
+    }
+
+    @Test
+    void failingListenerIsDroppedWithoutAffectingOthers() {
+        List<ResponseStreamEvent> healthy = new ArrayList<>();
+        List<ResponseStreamEvent> attempts = new ArrayList<>();
+        broker.subscribe("wf", event -> {
+            attempts.add(event);
+            throw new IllegalStateException("client went away");
+        });
+        broker.subscribe("wf", healthy::add);
+
+        broker.start("wf");
+        broker.delta("wf", "still here");
+
+        assertThat(attempts).hasSize(1);
+        assertThat(healthy).extracting(ResponseStreamEvent::type)
+                .containsExactly(ResponseStreamEvent.START, ResponseStreamEvent.DELTA);
+        assertThat(broker.hasSubscribers("wf")).isTrue();
+    }
+
+    @Test
+    void publishingWithoutSubscribersIsANoOp() {
+        broker.start("nobody");
+        broker.delta(null, "ignored");
+
+        assertThat(broker.hasSubscribers("nobody")).isFalse();
+    }
+}
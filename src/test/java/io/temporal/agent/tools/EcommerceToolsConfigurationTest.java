@@ -1,6 +1,10 @@
 package io.temporal.agent.tools;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolError;
 
 import java.util.List;
 import java.util.Map;
@@ -32,4 +36,25 @@ class EcommerceToolsConfigurationTest {
         Map<String, Object> tracking = registry.execute("TrackPackage", Map.of("tracking_id", "039813852990618"));
         assertThat(tracking).containsEntry("carrier", "USPS");
     }
+
+    @Test
+    void unknownOrderReturnsNonRetryableToolError() {
+        Map<String, Object> result = registry.execute("GetOrder", Map.of("order_id", "999"));
+        assertThat(ToolError.isError(result)).isTrue();
+        assertThat(result)
+                .containsEntry("error", "Order not found: 999")
+                .containsEntry("error_type", ToolError.INVALID_REQUEST)
+                .containsEntry("retryable", false);
+    }
+
+    @Test
+    void unexpectedFailureIsThrownAsRetryable() {
+        registry.register(new ToolDefinition("Flaky", "Always times out", List.of()), args -> {
+            throw new IllegalStateException("connection reset");
+        });
+
+        assertThatThrownBy(() -> registry.execute("Flaky", Map.of()))
+                .isInstanceOfSatisfying(ToolExecutionException.class,
+                        e -> assertThat(e.getError().retryable()).isTrue());
+    }
 }
@@ -0,0 +1,65 @@
+package io.temporal.agent.tools.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.model.tools.ToolArgument;
+import io.temporal.agent.model.tools.ToolDefinition;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ArgumentSchemaTest {
+
+    private final ArgumentSchema schema = ArgumentSchema.compile(definition());
+
+    @Test
+    void coercesValuesToDeclaredTypes() {
+        Map<String, Object> args = new HashMap<>();
+        args.put("email", " matt.murdock@nelsonmurdock.com ");
+        args.put("limit", "2");
+        args.put("order_id", 102);
+        args.put("signers", Map.of("email", "a@b.com", "role", "Client"));
+        args.put("notify", "yes");
+        args.put("note", null);
+
+        ArgumentSchema.Result result = schema.validate(args);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.args())
+                .containsEntry("email", "matt.murdock@nelsonmurdock.com")
+                .containsEntry("limit", 2L)
+                .containsEntry("order_id", "102")
+                .containsEntry("signers", List.of(Map.of("email", "a@b.com", "role", "Client")))
+                .containsEntry("notify", true)
+                .containsEntry("note", null);
+    }
+
+    @Test
+    void reportsEveryInvalidArgument() {
+        ArgumentSchema.Result result = schema.validate(Map.of(
+                "email", "matt at nelsonmurdock",
+                "limit", "two",
+                "signers", List.of(Map.of("email", "a@b.com"))));
+
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.errors()).containsExactlyInAnyOrder(
+                "email must be a valid email address (got 'matt at nelsonmurdock')",
+                "limit must be a number (got 'two')",
+                "signers item 1 is missing 'role'");
+    }
+
+    private static ToolDefinition definition() {
+        ToolArgument email = new ToolArgument("email", "string", "Customer email");
+        email.setFormat("email");
+        ToolArgument signers = new ToolArgument("signers", "array", "Signers");
+        signers.setItemFields(List.of("email", "role"));
+        return new ToolDefinition("Example", "Example tool", List.of(
+                email,
+                new ToolArgument("limit", "number", "Maximum results"),
+                new ToolArgument("order_id", "string", "Order id"),
+                signers,
+                new ToolArgument("notify", "boolean", "Whether to notify"),
+                new ToolArgument("note", "string", "Optional note")));
+    }
+}
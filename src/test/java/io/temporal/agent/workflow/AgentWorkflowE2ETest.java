@@ -2,25 +2,37 @@ package io.temporal.agent.workflow;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.temporal.agent.activities.PlannerContextActivitiesImpl;
+import io.temporal.agent.activities.PlannerContextCache;
 import io.temporal.agent.activities.ToolActivities;
+import io.temporal.agent.goals.GoalCatalog;
 import io.temporal.agent.goals.GoalRegistry;
 import io.temporal.agent.model.conversation.ConversationHistory;
 import io.temporal.agent.model.conversation.ConversationMessage;
 import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
+import io.temporal.agent.model.tools.IdleAction;
 import io.temporal.agent.model.workflow.AgentGoalWorkflowParams;
 import io.temporal.agent.model.workflow.CombinedInput;
+import io.temporal.agent.model.workflow.ContextTurn;
+import io.temporal.agent.model.workflow.ConversationOutcome;
 import io.temporal.agent.model.workflow.EnvLookupInput;
 import io.temporal.agent.model.workflow.EnvLookupOutput;
 import io.temporal.agent.model.workflow.NextStep;
 import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.model.workflow.ToolInvocation;
 import io.temporal.agent.model.workflow.ToolPromptInput;
 import io.temporal.agent.model.workflow.ValidationInput;
 import io.temporal.agent.model.workflow.ValidationResult;
 import io.temporal.agent.tools.EcommerceToolsConfiguration;
 import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.client.BatchRequest;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowOptions;
 import io.temporal.client.WorkflowStub;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.failure.ApplicationFailure;
 import io.temporal.testing.TestWorkflowEnvironment;
 import io.temporal.worker.Worker;
 import java.time.Duration;
@@ -30,6 +42,10 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 class AgentWorkflowE2ETest {
@@ -79,9 +95,27 @@ class AgentWorkflowE2ETest {
 
             workflow.confirmToolExecution(true);
 
-            String result = stub.getResult(String.class);
-            assertThat(result).contains("ListOrders");
-            assertThat(result).contains("orders");
+            ConversationOutcome outcome = stub.getResult(ConversationOutcome.class);
+            assertThat(outcome.goalId()).isEqualTo("goal_ecomm_list_orders");
+            assertThat(outcome.completion()).isEqualTo(ConversationOutcome.Completion.GOAL_COMPLETED);
+            assertThat(outcome.finalResponse()).isEqualTo("I've shared the latest results.");
+            assertThat(outcome.tools()).containsExactly(new ConversationOutcome.ToolUsage("ListOrders", 1, 0));
+            assertThat(outcome.transcriptRef()).endsWith(stub.getExecution().getRunId() + "#conversationHistory");
+
+            List<HistoryEvent> events = client.fetchHistory(stub.getExecution().getWorkflowId()).getEvents();
+            assertThat(events)
+                    .filteredOn(HistoryEvent::hasActivityTaskScheduledEventAttributes)
+                    .extracting(event -> event.getActivityTaskScheduledEventAttributes().getActivityType().getName())
+                    .doesNotContain("RunTool");
+            assertThat(events).anyMatch(HistoryEvent::hasMarkerRecordedEventAttributes);
+            // Only the calls that heartbeat get a heartbeat timeout.
+            assertThat(events)
+                    .filteredOn(HistoryEvent::hasActivityTaskScheduledEventAttributes)
+                    .map(HistoryEvent::getActivityTaskScheduledEventAttributes)
+                    .filteredOn(attributes -> attributes.getActivityType().getName().equals("GetWorkflowEnvVars"))
+                    .singleElement()
+                    .satisfies(attributes -> assertThat(attributes.hasHeartbeatTimeout()
+                            && attributes.getHeartbeatTimeout().getSeconds() > 0).isFalse());
         }
     }
 
@@ -141,8 +175,8 @@ class AgentWorkflowE2ETest {
 
             workflow.confirmToolExecution(true);
 
-            String result = stub.getResult(String.class);
-            assertThat(result).contains("ListOrders");
+            ConversationOutcome outcome = stub.getResult(ConversationOutcome.class);
+            assertThat(outcome.tools()).containsExactly(new ConversationOutcome.ToolUsage("ListOrders", 1, 0));
             assertThat(activities.getSeenPrompts())
                     .anyMatch(prompt -> prompt.startsWith("### The 'ListOrders' tool completed"));
         }
@@ -237,65 +271,1081 @@ class AgentWorkflowE2ETest {
         }
     }
 
-    private static Map<String, Object> plannerResponse(NextStep step, String tool, Map<String, Object> args, String response) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("next", step.getJsonValue());
-        map.put("tool", tool);
-        if (args != null) {
-            map.put("args", new HashMap<>(args));
+    @Test
+    void newUserPromptSupersedesInFlightPlannerCall() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! I can help with your orders."));
+        activities.setBlockingPrompt("Where is my order?");
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Let me look up order 102 for you."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_order_status");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            environment.sleep(Duration.ofSeconds(1));
+
+            workflow.submitUserPrompt("Where is my order?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("It's order 102");
+            environment.sleep(Duration.ofSeconds(1));
+
+            assertThat(activities.getSeenPrompts()).contains("Where is my order?\nIt's order 102");
+            ConversationHistory history = workflow.getConversationHistory();
+            List<Object> agentResponses = history.getMessages().stream()
+                    .filter(msg -> "agent".equals(msg.type()))
+                    .<Object>map(msg -> ((Map<?, ?>) msg.response()).get("response"))
+                    .toList();
+            assertThat(agentResponses).containsExactly("Hello! I can help with your orders.", "Let me look up order 102 for you.");
+            activities.releaseBlockedPrompt();
         }
-        map.put("response", response);
-        return map;
     }
 
-    private static final class StubToolActivities implements ToolActivities {
+    @Test
+    void promptsBeyondTheQueueLimitAreDroppedWhateverTheirPrefix() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_order_status");
 
-        private final Deque<Map<String, Object>> plannerResponses = new ArrayDeque<>();
-        private final List<String> seenPrompts = new ArrayList<>();
-        private final ToolRegistry toolRegistry;
-        private boolean failOnNullGoalValidation;
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.holdPlannerCalls();
 
-        private StubToolActivities(ToolRegistry toolRegistry) {
-            this.toolRegistry = toolRegistry;
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            AgentGoalWorkflow workflow = environment.getWorkflowClient().newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            for (int i = 0; i <= AgentGoalWorkflow.MAX_QUEUED_PROMPTS; i++) {
+                workflow.submitUserPrompt("### note " + i);
+            }
+            workflow.endChat();
+            activities.releasePlannerCalls();
+
+            assertThat(WorkflowStub.fromTyped(workflow).getResult(ConversationOutcome.class).completion())
+                    .isEqualTo(ConversationOutcome.Completion.CHAT_ENDED);
+            assertThat(workflow.getConversationHistory().getMessages())
+                    .filteredOn(message -> "agent".equals(message.type()))
+                    .extracting(message -> message.response().toString())
+                    .containsExactly("I still have " + AgentGoalWorkflow.MAX_QUEUED_PROMPTS
+                            + " messages to work through, so I couldn't take \"### note "
+                            + AgentGoalWorkflow.MAX_QUEUED_PROMPTS + "\". Please send it again once I've replied.");
         }
+    }
 
-        void enqueuePlannerResponse(Map<String, Object> response) {
-            plannerResponses.add(response);
+    @Test
+    void burstOfUserPromptsIsPlannedAsSingleTurn() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.holdPlannerCalls();
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! I can help with your orders."));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hi Matt, let me look up order 102."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_order_status");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            workflow.submitUserPrompt("Hi");
+            workflow.submitUserPrompt("I'm Matt");
+            workflow.submitUserPrompt("Order 102 please");
+            activities.releasePlannerCalls();
+            environment.sleep(Duration.ofSeconds(2));
+
+            assertThat(activities.getSeenPrompts()).hasSize(2);
+            assertThat(activities.getSeenPrompts()).contains("Hi\nI'm Matt\nOrder 102 please");
+            long userMessages = workflow.getConversationHistory().getMessages().stream()
+                    .filter(msg -> "user".equals(msg.type()))
+                    .count();
+            assertThat(userMessages).isEqualTo(3L);
         }
+    }
 
-        List<String> getSeenPrompts() {
-            return seenPrompts;
+    @Test
+    void independentToolCallsRunTogetherAndReplanOnce() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which orders should I check?"));
+        Map<String, Object> parallelDecision = plannerResponse(NextStep.CONFIRM, null, null,
+                "I'll pull up both orders.");
+        parallelDecision.put("tools", List.of(
+                Map.of("tool", "GetOrder", "args", Map.of("order_id", "102")),
+                Map.of("tool", "GetOrder", "args", Map.of("order_id", "103"))));
+        activities.enqueuePlannerResponse(parallelDecision);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "Both orders are on their way."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_order_status");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Check orders 102 and 103");
+            environment.sleep(Duration.ofSeconds(1));
+
+            ToolDecision decision = workflow.getToolDecision();
+            assertThat(decision.getInvocations()).extracting(ToolInvocation::getTool)
+                    .containsExactly("GetOrder", "GetOrder");
+
+            workflow.confirmToolExecution(true);
+            assertThat(stub.getResult(ConversationOutcome.class).tools())
+                    .containsExactly(new ConversationOutcome.ToolUsage("GetOrder", 2, 0));
+
+            long toolResults = workflow.getConversationHistory().getMessages().stream()
+                    .filter(msg -> "tool_result".equals(msg.type()))
+                    .count();
+            assertThat(toolResults).isEqualTo(2L);
+            assertThat(activities.getSeenPrompts()).hasSize(3);
+            assertThat(activities.getSeenPrompts().get(2))
+                    .startsWith("### 2 tool calls completed successfully")
+                    .contains("\"102\"", "\"103\"");
         }
+    }
 
-        void setFailOnNullGoalValidation(boolean failOnNullGoalValidation) {
-            this.failOnNullGoalValidation = failOnNullGoalValidation;
+    @Test
+    void orderStatusChainTracksPackageWithoutIntermediatePlannerTurn() {
+        StubToolActivities activities = runOrderStatusChain("102");
+
+        assertThat(activities.getSeenPrompts()).hasSize(3);
+        assertThat(activities.getSeenPrompts().get(2))
+                .startsWith("### The 'GetOrder' tool completed successfully and its follow-up steps ran automatically")
+                .contains("'TrackPackage'", "USPS")
+                .doesNotContain("were not run");
+    }
+
+    @Test
+    void orderStatusChainStopsWhenMappedArgumentIsMissing() {
+        StubToolActivities activities = runOrderStatusChain("103");
+
+        assertThat(activities.getSeenPrompts()).hasSize(3);
+        assertThat(activities.getSeenPrompts().get(2))
+                .contains("TrackPackage needs 'tracking_id', which no earlier result provided")
+                .doesNotContain("'TrackPackage' with args");
+    }
+
+    @Test
+    void templatedToolSummaryReplacesCompletionPlannerCall() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! How can I help with your orders?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "GetOrder", Map.of("order_id", "103"),
+                "Let me fetch order 103."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_list_orders");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("What's happening with order 103?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.confirmToolExecution(true);
+            environment.sleep(Duration.ofSeconds(1));
+
+            assertThat(activities.getSeenPrompts()).hasSize(2);
+            ToolDecision decision = workflow.getToolDecision();
+            assertThat(decision.getNextValue()).isEqualTo("question");
+            assertThat(decision.getResponse()).startsWith("Order 103 (Blue Sunglasses) is currently paid");
+            assertThat(workflow.isChatEnded()).isFalse();
+            workflow.endChat();
         }
+    }
 
-        @Override
-        public ValidationResult agentValidatePrompt(ValidationInput input) {
-            if (failOnNullGoalValidation && input.getAgentGoal() == null) {
-                throw new IllegalStateException("Validation invoked without a goal");
-            }
-            return new ValidationResult(true, Map.of());
+    @Test
+    void predictedTrackPackageCallIsPrefetchedAndReused() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! How can I help with your orders?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "GetOrder", Map.of("order_id", "102"),
+                "Let me fetch order 102."));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "TrackPackage",
+                Map.of("tracking_id", "039813852990618"), "Checking the shipment now."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_list_orders");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("What's happening with order 102?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.confirmToolExecution(true);
+            environment.sleep(Duration.ofSeconds(1));
+
+            assertThat(activities.getToolCalls()).containsExactly("GetOrder", "TrackPackage");
+
+            workflow.submitUserPrompt("Where is the package right now?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.confirmToolExecution(true);
+            environment.sleep(Duration.ofSeconds(1));
+
+            assertThat(activities.getToolCalls()).containsExactly("GetOrder", "TrackPackage");
+            assertThat(workflow.getToolDecision().getResponse()).startsWith("Your USPS package");
+            workflow.endChat();
         }
+    }
 
-        @Override
-        public Map<String, Object> agentToolPlanner(ToolPromptInput input) {
-            seenPrompts.add(input.getPrompt());
-            Map<String, Object> response = plannerResponses.pollFirst();
-            if (response == null) {
-                throw new IllegalStateException("No planner response configured for prompt: " + input.getPrompt());
+    @Test
+    void expiredPrefetchIsRunAgain() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! How can I help with your orders?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "GetOrder", Map.of("order_id", "102"),
+                "Let me fetch order 102."));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "TrackPackage",
+                Map.of("tracking_id", "039813852990618"), "Checking the shipment now."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            AgentGoalWorkflow workflow = environment.getWorkflowClient().newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_list_orders");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("What's happening with order 102?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.confirmToolExecution(true);
+            environment.sleep(Duration.ofSeconds(1));
+            assertThat(activities.getToolCalls()).containsExactly("GetOrder", "TrackPackage");
+
+            environment.sleep(Duration.ofMinutes(3));
+            workflow.submitUserPrompt("Where is the package right now?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.confirmToolExecution(true);
+            environment.sleep(Duration.ofSeconds(1));
+
+            assertThat(activities.getToolCalls()).containsExactly("GetOrder", "TrackPackage", "TrackPackage");
+            workflow.endChat();
+        }
+    }
+
+    @Test
+    void readOnlyToolRunsWithoutConfirmationWhenAutoConfirmIsOn() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.setAutoConfirmSafeTools(true);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "ListOrders",
+                Map.of("email", "matt.murdock@nelsonmurdock.com", "limit", 2), "Looking up your orders."));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "You have two recent orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_list_orders");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+
+            assertThat(stub.getResult(ConversationOutcome.class).finalResponse()).contains("You have two recent orders.");
+            assertThat(activities.getToolCalls()).containsExactly("ListOrders");
+            assertThat(workflow.getAutoConfirmedTurns()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void envSettingsInInputSkipTheLookupActivity() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "Hello! Nothing else to do here."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            CombinedInput input = new CombinedInput(new AgentGoalWorkflowParams(),
+                    goalRegistry.findGoal("goal_ecomm_list_orders"));
+            input.setEnvSettings(new EnvLookupOutput(true, false));
+            WorkflowClient.start(workflow::run, input);
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            assertThat(stub.getResult(ConversationOutcome.class).finalResponse()).contains("Nothing else to do here.");
+            List<HistoryEvent> events = client.fetchHistory(stub.getExecution().getWorkflowId()).getEvents();
+            assertThat(events)
+                    .filteredOn(HistoryEvent::hasActivityTaskScheduledEventAttributes)
+                    .extracting(event -> event.getActivityTaskScheduledEventAttributes().getActivityType().getName())
+                    .doesNotContain("GetWorkflowEnvVars");
+        }
+    }
+
+    @Test
+    void signalWithStartPromptFollowsGreetingOrSkipsIt() {
+        List<String> withGreeting = signalWithStartPrompts(false);
+        assertThat(withGreeting).hasSize(2);
+        assertThat(withGreeting.get(0)).startsWith("###");
+        assertThat(withGreeting.get(1)).isEqualTo("Show orders for matt.murdock@nelsonmurdock.com");
+        assertThat(signalWithStartPrompts(true)).containsExactly("Show orders for matt.murdock@nelsonmurdock.com");
+    }
+
+    private List<String> signalWithStartPrompts(boolean skipGreeting) {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        if (!skipGreeting) {
+            activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                    "Hello! Which email should I look up?"));
+        }
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "You have no recent orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoalWorkflowParams params = new AgentGoalWorkflowParams();
+            params.setSkipStarterPrompt(skipGreeting);
+            BatchRequest request = client.newSignalWithStartRequest();
+            request.add(workflow::run, new CombinedInput(params, goalRegistry.findGoal("goal_ecomm_list_orders")));
+            request.add(workflow::submitUserPrompt, "Show orders for matt.murdock@nelsonmurdock.com");
+            client.signalWithStart(request);
+
+            assertThat(WorkflowStub.fromTyped(workflow).getResult(ConversationOutcome.class).finalResponse()).contains("You have no recent orders.");
+            return activities.getSeenPrompts();
+        }
+    }
+
+    @Test
+    void catalogGoalTravelsAsReference() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalCatalog goalCatalog = new GoalCatalog(new GoalRegistry(toolRegistry));
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.setGoalCatalog(goalCatalog);
+        activities.setValidatorMissesReferences(true);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "You have no recent orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            GoalReference reference = goalCatalog.reference("goal_ecomm_list_orders");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), reference));
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            environment.sleep(Duration.ofSeconds(1));
+            assertThat(workflow.getCurrentGoal().getTools()).extracting("name").contains("ListOrders");
+            workflow.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+
+            assertThat(stub.getResult(ConversationOutcome.class).finalResponse()).contains("You have no recent orders.");
+            String startInput = client.fetchHistory(stub.getExecution().getWorkflowId()).getEvents().get(0)
+                    .getWorkflowExecutionStartedEventAttributes().getInput().toString();
+            assertThat(startInput).contains(reference.version()).doesNotContain("ListOrders");
+            // The validator could not resolve the reference, so the prompt was validated against the inline goal.
+            assertThat(activities.getValidationInputs()).extracting(ValidationInput::getGoalReference)
+                    .containsExactly(reference, null);
+            assertThat(activities.getValidationInputs().get(1).getAgentGoal().getId())
+                    .isEqualTo("goal_ecomm_list_orders");
+        }
+    }
+
+    @Test
+    void unresolvableGoalVersionFallsBackWithoutFailingTheRun() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalCatalog goalCatalog = new GoalCatalog(new GoalRegistry(toolRegistry));
+        // Versions created by a newer build are unknown to this worker's catalog.
+        GoalReference unknown = new GoalReference("goal_ecomm_list_orders", "0000000000000000");
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.setGoalCatalog(goalCatalog);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hi! What would you like help with?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "You have no recent orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            AgentGoalWorkflow workflow = environment.getWorkflowClient().newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), unknown));
+
+            environment.sleep(Duration.ofSeconds(1));
+            assertThat(workflow.getCurrentGoal().getId()).isEqualTo("goal_choose_agent_type");
+            assertThat(workflow.getConversationHistory().getMessages()).first()
+                    .extracting(message -> message.response().toString())
+                    .asString().contains("goal_ecomm_list_orders is no longer available");
+
+            workflow.selectGoalReference(new GoalReference("goal_retired", "0000000000000000"));
+            environment.sleep(Duration.ofSeconds(1));
+            assertThat(workflow.getCurrentGoal().getId()).isEqualTo("goal_choose_agent_type");
+            assertThat(workflow.getConversationHistory().getMessages()).last()
+                    .extracting(message -> message.response().toString())
+                    .asString().contains("goal_retired is not available");
+
+            GoalReference current = goalCatalog.reference("goal_ecomm_list_orders");
+            workflow.selectGoalReference(current);
+            environment.sleep(Duration.ofSeconds(1));
+            assertThat(workflow.getCurrentGoal().getId()).isEqualTo("goal_ecomm_list_orders");
+            workflow.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+
+            ConversationOutcome outcome = WorkflowStub.fromTyped(workflow).getResult(ConversationOutcome.class);
+            assertThat(outcome.finalResponse()).contains("You have no recent orders.");
+            assertThat(outcome.goalVersion()).isEqualTo(current.version());
+        }
+    }
+
+    @Test
+    void idleConversationEndsWithSummary() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_list_orders");
+        goal.setIdleTimeoutSeconds(60);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            AgentGoalWorkflow workflow = environment.getWorkflowClient().newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            ConversationOutcome outcome = WorkflowStub.fromTyped(workflow).getResult(ConversationOutcome.class);
+            assertThat(outcome.completion()).isEqualTo(ConversationOutcome.Completion.IDLE_ENDED);
+            assertThat(outcome.summary()).contains("went idle", "Last reply: Hello! Which email should I look up?");
+        }
+    }
+
+    @Test
+    void idleTimerIsCancelledWhenUserActivityArrives() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_list_orders");
+        goal.setIdleTimeoutSeconds(60);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "You have no recent orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+            assertThat(stub.getResult(ConversationOutcome.class).completion())
+                    .isEqualTo(ConversationOutcome.Completion.GOAL_COMPLETED);
+
+            List<HistoryEvent> events = client.fetchHistory(stub.getExecution().getWorkflowId()).getEvents();
+            // The starter prompt is already queued on the first pass, so only the wait for the user starts a timer.
+            assertThat(events).filteredOn(HistoryEvent::hasTimerStartedEventAttributes).hasSize(1);
+            assertThat(events).filteredOn(HistoryEvent::hasTimerCanceledEventAttributes).hasSize(1);
+            assertThat(events).noneMatch(HistoryEvent::hasTimerFiredEventAttributes);
+        }
+    }
+
+    @Test
+    void idleConversationParksWithSummaryAndResumes() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_list_orders");
+        goal.setIdleTimeoutSeconds(60);
+        goal.setIdleAction(IdleAction.PARK);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "You have no recent orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+            String workflowId = WorkflowStub.fromTyped(workflow).getExecution().getWorkflowId();
+
+            environment.sleep(Duration.ofMinutes(5));
+            AgentGoalWorkflow resumed = client.newWorkflowStub(AgentGoalWorkflow.class, workflowId);
+            List<ConversationMessage> parkedHistory = resumed.getConversationHistory().getMessages();
+            assertThat(parkedHistory).extracting(ConversationMessage::type).containsExactly("conversation_summary");
+            assertThat(parkedHistory.get(0).response().toString()).contains("Hello! Which email should I look up?");
+
+            resumed.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+            ConversationOutcome outcome = WorkflowStub.fromTyped(resumed).getResult(ConversationOutcome.class);
+            assertThat(outcome.completion()).isEqualTo(ConversationOutcome.Completion.GOAL_COMPLETED);
+            assertThat(activities.getSeenPrompts()).hasSize(2);
+            assertThat(activities.getSeenPrompts().get(1)).isEqualTo("Show orders for matt.murdock@nelsonmurdock.com");
+        }
+    }
+
+    @Test
+    void invalidArgsAreSentBackToPlannerWithoutRunningTool() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "ListOrders",
+                Map.of("email", "matt.murdock@nelsonmurdock.com", "limit", "a couple"), "Looking up your orders."));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "ListOrders",
+                Map.of("email", "matt.murdock@nelsonmurdock.com", "limit", "2"), "Looking up your orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_list_orders");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Show a couple of orders for matt.murdock@nelsonmurdock.com");
+            environment.sleep(Duration.ofSeconds(1));
+
+            assertThat(activities.getSeenPrompts()).hasSize(3);
+            assertThat(activities.getSeenPrompts().get(2))
+                    .startsWith("### The tool 'ListOrders' has invalid args: limit must be a number (got 'a couple')");
+            assertThat(activities.getToolCalls()).isEmpty();
+            assertThat(workflow.getToolDecision().getArgs()).containsEntry("limit", 2);
+            workflow.endChat();
+        }
+    }
+
+    @Test
+    void businessErrorIsReportedToPlannerWithoutRetries() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! What's your order number?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "GetOrder", Map.of("order_id", "999"),
+                "Let me look that up."));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "I couldn't find order 999. Could you double-check the number?"));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_order_status");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Where is order 999?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.confirmToolExecution(true);
+            environment.sleep(Duration.ofSeconds(1));
+
+            assertThat(activities.getToolCalls()).containsExactly("GetOrder");
+            assertThat(activities.getSeenPrompts().get(2))
+                    .startsWith("### The 'GetOrder' tool failed")
+                    .contains("Order not found: 999");
+            assertThat(workflow.getToolDecision().getResponse()).contains("couldn't find order 999");
+            workflow.endChat();
+        }
+    }
+
+    @Test
+    void providerSessionSendsOnlyNewMessagesAndResendsAfterExpiry() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Any particular order?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "Those are all your orders."));
+        activities.expireSession("resp_2");
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            CombinedInput input = new CombinedInput(new AgentGoalWorkflowParams(),
+                    goalRegistry.findGoal("goal_ecomm_list_orders"));
+            EnvLookupOutput envSettings = new EnvLookupOutput(true, false);
+            envSettings.setProviderSessions(true);
+            input.setEnvSettings(envSettings);
+            WorkflowClient.start(workflow::run, input);
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("All of them");
+
+            assertThat(stub.getResult(ConversationOutcome.class).finalResponse()).contains("all your orders");
+        }
+
+        List<ToolPromptInput> inputs = activities.getSeenInputs();
+        assertThat(inputs).hasSize(4);
+        assertThat(inputs).allSatisfy(seen -> assertThat(seen.getContextInstructions())
+                .doesNotContain("*BEGIN CONVERSATION HISTORY*"));
+        assertThat(inputs.get(0).getPreviousResponseId()).isNull();
+        assertThat(inputs.get(0).getSessionMessages()).isEmpty();
+        assertThat(inputs.get(1).getPreviousResponseId()).isEqualTo("resp_1");
+        assertThat(inputs.get(1).getSessionMessages()).extracting(ConversationMessage::type)
+                .containsExactly("agent", "user");
+        assertThat(inputs.get(2).getPreviousResponseId()).isEqualTo("resp_2");
+        assertThat(inputs.get(2).getSessionMessages()).extracting(ConversationMessage::type)
+                .containsExactly("agent", "user");
+        assertThat(inputs.get(3).getPreviousResponseId()).isNull();
+        assertThat(inputs.get(3).getSessionMessages()).hasSize(4);
+    }
+
+    @Test
+    void affinityWithoutAContextHostFallsBackToRegularPlanning() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "You have no recent orders."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            // The starter asks for affinity, but no worker registers the planner context activities.
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            CombinedInput input = new CombinedInput(new AgentGoalWorkflowParams(),
+                    goalRegistry.findGoal("goal_ecomm_list_orders"));
+            EnvLookupOutput envSettings = new EnvLookupOutput(true, false);
+            envSettings.setWorkerAffinity(true);
+            input.setEnvSettings(envSettings);
+            WorkflowClient.start(workflow::run, input);
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+
+            assertThat(stub.getResult(ConversationOutcome.class).finalResponse()).contains("no recent orders");
+            assertThat(activities.getSeenPrompts()).hasSize(2);
+            assertThat(client.fetchHistory(stub.getExecution().getWorkflowId()).getEvents())
+                    .filteredOn(HistoryEvent::hasActivityTaskScheduledEventAttributes)
+                    .extracting(event -> event.getActivityTaskScheduledEventAttributes().getActivityType().getName())
+                    .containsOnlyOnce("HostTaskQueue")
+                    .doesNotContain("PlanWithCachedContext");
+        }
+    }
+
+    @Test
+    void pinnedWorkerReceivesOnlyNewMessagesAndRebuildsOnMiss() {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! Which email should I look up?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Any particular order?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "Those are all your orders."));
+        String hostTaskQueue = TASK_QUEUE + "-host";
+        PlannerContextCache cache = new PlannerContextCache(10, Duration.ofHours(1));
+        PlannerContextActivitiesImpl contextActivities =
+                new PlannerContextActivitiesImpl(hostTaskQueue, activities, cache);
+
+        List<ContextTurn> turns = new ArrayList<>();
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities, contextActivities);
+            environment.newWorker(hostTaskQueue).registerActivitiesImplementations(contextActivities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            CombinedInput input = new CombinedInput(new AgentGoalWorkflowParams(),
+                    goalRegistry.findGoal("goal_ecomm_list_orders"));
+            EnvLookupOutput envSettings = new EnvLookupOutput(true, false);
+            envSettings.setWorkerAffinity(true);
+            input.setEnvSettings(envSettings);
+            WorkflowClient.start(workflow::run, input);
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+            String workflowId = stub.getExecution().getWorkflowId();
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Show orders for matt.murdock@nelsonmurdock.com");
+            environment.sleep(Duration.ofSeconds(1));
+            cache.invalidate(workflowId);
+            workflow.submitUserPrompt("All of them");
+
+            assertThat(stub.getResult(ConversationOutcome.class).finalResponse()).contains("all your orders");
+            assertThat(cache.size()).isZero();
+            client.fetchHistory(workflowId).getEvents().stream()
+                    .filter(HistoryEvent::hasActivityTaskScheduledEventAttributes)
+                    .map(HistoryEvent::getActivityTaskScheduledEventAttributes)
+                    .filter(attributes -> attributes.getActivityType().getName().equals("PlanWithCachedContext"))
+                    .forEach(attributes -> {
+                        assertThat(attributes.getTaskQueue().getName()).isEqualTo(hostTaskQueue);
+                        turns.add(DefaultDataConverter.STANDARD_INSTANCE.fromPayloads(0,
+                                Optional.of(attributes.getInput()), ContextTurn.class, ContextTurn.class));
+                    });
+        }
+
+        assertThat(turns).hasSize(4);
+        assertThat(turns.get(0).getGoalContext()).contains("=== Tools Definitions ===");
+        assertThat(turns.get(1).getGoalContext()).isNull();
+        assertThat(turns.get(1).getMessages()).extracting(ConversationMessage::type).containsExactly("agent", "user");
+        assertThat(turns.get(2).getBaseSequence()).isEqualTo(2);
+        assertThat(turns.get(2).getMessages()).extracting(ConversationMessage::type).containsExactly("agent", "user");
+        assertThat(turns.get(3).getBaseSequence()).isZero();
+        assertThat(turns.get(3).getMessages()).hasSize(4);
+        assertThat(turns.get(3).getGoalContext()).isNotNull();
+        assertThat(activities.getSeenInputs().get(2).getContextInstructions())
+                .contains("Show orders for matt.murdock@nelsonmurdock.com", "All of them", "=== Tools Definitions ===");
+    }
+
+    private StubToolActivities runOrderStatusChain(String orderId) {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        GoalRegistry goalRegistry = new GoalRegistry(toolRegistry);
+
+        StubToolActivities activities = new StubToolActivities(toolRegistry);
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.QUESTION, null, null,
+                "Hello! What's your order number?"));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.CONFIRM, "GetOrder", Map.of("order_id", orderId),
+                "Let me look that up."));
+        activities.enqueuePlannerResponse(plannerResponse(NextStep.DONE, null, null,
+                "Here's the latest on your order."));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            WorkflowClient client = environment.getWorkflowClient();
+            AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            AgentGoal goal = goalRegistry.findGoal("goal_ecomm_order_status");
+            WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.submitUserPrompt("Where is order " + orderId + "?");
+            environment.sleep(Duration.ofSeconds(1));
+            workflow.confirmToolExecution(true);
+            stub.getResult(ConversationOutcome.class);
+        }
+        return activities;
+    }
+
+    private static Map<String, Object> plannerResponse(NextStep step, String tool, Map<String, Object> args, String response) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("next", step.getJsonValue());
+        map.put("tool", tool);
+        if (args != null) {
+            map.put("args", new HashMap<>(args));
+        }
+        map.put("response", response);
+        return map;
+    }
+
+    private static final class StubToolActivities implements ToolActivities {
+
+        private final Deque<Map<String, Object>> plannerResponses = new ArrayDeque<>();
+        private final List<String> seenPrompts = new ArrayList<>();
+        private final List<ToolPromptInput> seenInputs = new ArrayList<>();
+        private String expiredSession;
+        private int sessionResponses;
+        private final List<String> toolCalls = new CopyOnWriteArrayList<>();
+        private final ToolRegistry toolRegistry;
+        private boolean failOnNullGoalValidation;
+        private boolean autoConfirmSafeTools;
+        private String blockingPrompt;
+        private final CountDownLatch plannerGate = new CountDownLatch(1);
+        private boolean holdPlanner;
+        private final CountDownLatch blockedPromptRelease = new CountDownLatch(1);
+        private final List<ValidationInput> validationInputs = new CopyOnWriteArrayList<>();
+        private GoalCatalog goalCatalog;
+        private boolean validatorMissesReferences;
+
+        private StubToolActivities(ToolRegistry toolRegistry) {
+            this.toolRegistry = toolRegistry;
+        }
+
+        void enqueuePlannerResponse(Map<String, Object> response) {
+            plannerResponses.add(response);
+        }
+
+        List<String> getSeenPrompts() {
+            return seenPrompts;
+        }
+
+        List<ToolPromptInput> getSeenInputs() {
+            return seenInputs;
+        }
+
+        void expireSession(String responseId) {
+            this.expiredSession = responseId;
+        }
+
+        List<String> getToolCalls() {
+            return toolCalls;
+        }
+
+        void setFailOnNullGoalValidation(boolean failOnNullGoalValidation) {
+            this.failOnNullGoalValidation = failOnNullGoalValidation;
+        }
+
+        void setAutoConfirmSafeTools(boolean autoConfirmSafeTools) {
+            this.autoConfirmSafeTools = autoConfirmSafeTools;
+        }
+
+        void setBlockingPrompt(String blockingPrompt) {
+            this.blockingPrompt = blockingPrompt;
+        }
+
+        void holdPlannerCalls() {
+            this.holdPlanner = true;
+        }
+
+        void releasePlannerCalls() {
+            plannerGate.countDown();
+        }
+
+        void releaseBlockedPrompt() {
+            blockedPromptRelease.countDown();
+        }
+
+        void setGoalCatalog(GoalCatalog goalCatalog) {
+            this.goalCatalog = goalCatalog;
+        }
+
+        void setValidatorMissesReferences(boolean validatorMissesReferences) {
+            this.validatorMissesReferences = validatorMissesReferences;
+        }
+
+        List<ValidationInput> getValidationInputs() {
+            return validationInputs;
+        }
+
+        @Override
+        public AgentGoal resolveGoal(GoalReference reference) {
+            AgentGoal goal = goalCatalog != null ? goalCatalog.find(reference) : null;
+            if (goal == null) {
+                throw ApplicationFailure.newNonRetryableFailure("unknown " + reference, GoalReference.NOT_FOUND);
+            }
+            return goal;
+        }
+
+        @Override
+        public ValidationResult agentValidatePrompt(ValidationInput input) {
+            validationInputs.add(input);
+            if (validatorMissesReferences && input.getGoalReference() != null) {
+                throw ApplicationFailure.newNonRetryableFailure("unknown " + input.getGoalReference(),
+                        GoalReference.NOT_FOUND);
+            }
+            if (failOnNullGoalValidation && input.getAgentGoal() == null) {
+                throw new IllegalStateException("Validation invoked without a goal");
+            }
+            return new ValidationResult(true, Map.of());
+        }
+
+        @Override
+        public Map<String, Object> agentToolPlanner(ToolPromptInput input) {
+            seenPrompts.add(input.getPrompt());
+            if (input.getPrompt().equals(blockingPrompt)) {
+                try {
+                    blockedPromptRelease.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Blocked planner call should have been abandoned");
+            }
+            if (holdPlanner) {
+                try {
+                    plannerGate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            seenInputs.add(input);
+            if (input.isSessionTurn() && input.getPreviousResponseId() != null
+                    && input.getPreviousResponseId().equals(expiredSession)) {
+                throw ApplicationFailure.newNonRetryableFailure("expired", ToolPromptInput.SESSION_NOT_FOUND);
+            }
+            Map<String, Object> response = plannerResponses.pollFirst();
+            if (response == null) {
+                throw new IllegalStateException("No planner response configured for prompt: " + input.getPrompt());
+            }
+            if (input.isSessionTurn()) {
+                response = new HashMap<>(response);
+                response.put(ToolPromptInput.SESSION_RESPONSE_ID, "resp_" + ++sessionResponses);
             }
             return response;
         }
 
         @Override
         public EnvLookupOutput getWorkflowEnvVars(EnvLookupInput input) {
-            return new EnvLookupOutput(true, false);
+            EnvLookupOutput output = new EnvLookupOutput(true, false);
+            output.setAutoConfirmSafeTools(autoConfirmSafeTools);
+            return output;
         }
 
         @Override
         public Map<String, Object> runTool(String toolName, Map<String, Object> args) {
+            toolCalls.add(toolName);
             return toolRegistry.execute(toolName, args);
         }
 
@@ -0,0 +1,47 @@
+package io.temporal.agent.workflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.model.tools.ToolDefinition;
+import io.temporal.agent.model.tools.ToolEffect;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ConfirmationPolicyTest {
+
+    private static final ToolDefinition LOOKUP = tool("GetOrder", ToolEffect.READ_ONLY);
+    private static final ToolDefinition SEND = tool("SendPandadocDocument", ToolEffect.MUTATING);
+
+    @Test
+    void readOnlyToolsSkipConfirmationWhenEnabled() {
+        ConfirmationPolicy policy = new ConfirmationPolicy(true, true);
+
+        assertThat(policy.requiresConfirmation(List.of(LOOKUP, LOOKUP))).isFalse();
+        assertThat(policy.savesTurn(List.of(LOOKUP))).isTrue();
+    }
+
+    @Test
+    void mutatingOrUnknownToolsStillRequireConfirmation() {
+        ConfirmationPolicy policy = new ConfirmationPolicy(true, true);
+
+        assertThat(policy.requiresConfirmation(List.of(SEND))).isTrue();
+        assertThat(policy.requiresConfirmation(List.of(LOOKUP, SEND))).isTrue();
+        assertThat(policy.requiresConfirmation(Arrays.asList(LOOKUP, null))).isTrue();
+        assertThat(new ConfirmationPolicy(true, false).requiresConfirmation(List.of(LOOKUP))).isTrue();
+    }
+
+    @Test
+    void nothingIsSavedWhenConfirmationIsOff() {
+        ConfirmationPolicy policy = new ConfirmationPolicy(false, true);
+
+        assertThat(policy.requiresConfirmation(List.of(SEND))).isFalse();
+        assertThat(policy.savesTurn(List.of(LOOKUP))).isFalse();
+    }
+
+    private static ToolDefinition tool(String name, ToolEffect effect) {
+        ToolDefinition definition = new ToolDefinition(name, name, List.of());
+        definition.setEffect(effect);
+        return definition;
+    }
+}
@@ -0,0 +1,223 @@
+package io.temporal.agent.workflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.temporal.agent.activities.ToolActivities;
+import io.temporal.agent.goals.GoalRegistry;
+import io.temporal.agent.model.conversation.ConversationHistory;
+import io.temporal.agent.model.conversation.MessageType;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
+import io.temporal.agent.model.tools.McpServerDefinition;
+import io.temporal.agent.model.workflow.AgentGoalWorkflowParams;
+import io.temporal.agent.model.workflow.CombinedInput;
+import io.temporal.agent.model.workflow.EnvLookupInput;
+import io.temporal.agent.model.workflow.EnvLookupOutput;
+import io.temporal.agent.model.workflow.NextStep;
+import io.temporal.agent.model.workflow.ToolDecision;
+import io.temporal.agent.model.workflow.ToolPromptInput;
+import io.temporal.agent.model.workflow.ValidationInput;
+import io.temporal.agent.model.workflow.ValidationResult;
+import io.temporal.agent.tools.EcommerceToolsConfiguration;
+import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the heap retained by conversation state: the compact history against the previous layout of
+ * {@code HashMap} copies plus a second list of tool results, and the total heap per parked workflow in the worker
+ * cache. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class ConversationHeapBenchmarkTest {
+
+    private static final String TASK_QUEUE = "agent-heap-benchmark";
+    private static final int CONVERSATIONS = 5_000;
+    private static final int CACHED_WORKFLOWS = 300;
+    private static final String EMAIL = "matt.murdock@nelsonmurdock.com";
+
+    @Test
+    void compactHistoryRetainsLessHeapThanRawMaps() throws Exception {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        ObjectMapper mapper = new ObjectMapper();
+        String toolResultJson = mapper.writeValueAsString(toolRegistry.execute("ListOrders", Map.of("email", EMAIL)));
+
+        long legacy = retainedBytesPerConversation(() -> legacyConversation(mapper, toolResultJson));
+        long compact = retainedBytesPerConversation(() -> compactConversation(mapper, toolResultJson));
+
+        System.out.printf("conversation history: raw maps=%d bytes, compact=%d bytes (%.0f%% smaller)%n",
+                legacy, compact, 100.0 * (legacy - compact) / legacy);
+        assertThat(compact).isLessThan(legacy);
+    }
+
+    @Test
+    void heapPerCachedWorkflow() throws Exception {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_list_orders");
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(new ParkingActivities(toolRegistry));
+            environment.start();
+            WorkflowClient client = environment.getWorkflowClient();
+
+            long before = usedHeapAfterGc();
+            List<AgentGoalWorkflow> workflows = new ArrayList<>();
+            for (int i = 0; i < CACHED_WORKFLOWS; i++) {
+                AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                        WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+                WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+                workflow.submitUserPrompt("Show orders for " + EMAIL);
+                workflows.add(workflow);
+            }
+            for (AgentGoalWorkflow workflow : workflows) {
+                while (workflow.getConversationHistory().getMessages().size() < 6) {
+                    Thread.sleep(5);
+                }
+            }
+            long perWorkflow = (usedHeapAfterGc() - before) / CACHED_WORKFLOWS;
+
+            System.out.printf("heap per cached workflow after one tool turn: %d bytes%n", perWorkflow);
+            assertThat(perWorkflow).isPositive();
+        }
+    }
+
+    /** The layout before compaction: HashMap copies in the history plus every tool result kept a second time. */
+    private static Object legacyConversation(ObjectMapper mapper, String toolResultJson) {
+        List<Object[]> messages = new ArrayList<>();
+        List<Map<String, Object>> toolResults = new ArrayList<>();
+        for (Map.Entry<MessageType, Object> turn : turns(mapper, toolResultJson)) {
+            Object response = turn.getValue() instanceof Map<?, ?> map ? new HashMap<>(map) : turn.getValue();
+            messages.add(new Object[] {turn.getKey().getJsonValue(), response});
+            if (turn.getKey() == MessageType.TOOL_RESULT) {
+                toolResults.add(readMap(mapper, toolResultJson));
+            }
+        }
+        return new Object[] {messages, toolResults};
+    }
+
+    private static Object compactConversation(ObjectMapper mapper, String toolResultJson) {
+        ConversationHistory history = new ConversationHistory();
+        turns(mapper, toolResultJson).forEach(turn -> history.addMessage(turn.getKey(), turn.getValue()));
+        return history;
+    }
+
+    private static List<Map.Entry<MessageType, Object>> turns(ObjectMapper mapper, String toolResultJson) {
+        ToolDecision confirm = new ToolDecision();
+        confirm.setNext(NextStep.CONFIRM);
+        confirm.setTool("ListOrders");
+        confirm.setArgs(Map.of("email", EMAIL, "limit", 2));
+        confirm.setResponse("Looking up your orders.");
+        Map<String, Object> confirmed = new HashMap<>(confirm.toRawMap());
+        confirmed.put("next", "user_confirmed_tool_run");
+        ToolDecision done = new ToolDecision();
+        done.setNext(NextStep.QUESTION);
+        done.setResponse("You have two recent orders. Want details on either one?");
+
+        return List.of(
+                Map.entry(MessageType.USER, "Show orders for " + EMAIL),
+                Map.entry(MessageType.AGENT, confirm.toRawMap()),
+                Map.entry(MessageType.USER_CONFIRMED_TOOL_RUN, confirmed),
+                Map.entry(MessageType.TOOL_RESULT, readMap(mapper, toolResultJson)),
+                Map.entry(MessageType.AGENT, done.toRawMap()));
+    }
+
+    private static Map<String, Object> readMap(ObjectMapper mapper, String json) {
+        try {
+            return mapper.readValue(json, new TypeReference<>() {
+            });
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static long retainedBytesPerConversation(java.util.function.Supplier<Object> factory) throws Exception {
+        factory.get();
+        long before = usedHeapAfterGc();
+        Object[] retained = new Object[CONVERSATIONS];
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            retained[i] = factory.get();
+        }
+        long after = usedHeapAfterGc();
+        assertThat(retained[CONVERSATIONS - 1]).isNotNull();
+        return (after - before) / CONVERSATIONS;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Planner that runs ListOrders on the user turn and then asks a follow-up question, leaving the workflow parked. */
+    private static final class ParkingActivities implements ToolActivities {
+
+        private final ToolRegistry toolRegistry;
+
+        private ParkingActivities(ToolRegistry toolRegistry) {
+            this.toolRegistry = toolRegistry;
+        }
+
+        @Override
+        public AgentGoal resolveGoal(GoalReference reference) {
+            throw new UnsupportedOperationException("Goals are passed inline");
+        }
+
+        @Override
+        public ValidationResult agentValidatePrompt(ValidationInput input) {
+            return new ValidationResult(true, Map.of());
+        }
+
+        @Override
+        public Map<String, Object> agentToolPlanner(ToolPromptInput input) {
+            Map<String, Object> decision = new HashMap<>();
+            if (input.getPrompt().startsWith("###")) {
+                decision.put("next", NextStep.QUESTION.getJsonValue());
+                decision.put("response", "You have two recent orders. Want details on either one?");
+            } else {
+                decision.put("next", NextStep.CONFIRM.getJsonValue());
+                decision.put("tool", "ListOrders");
+                decision.put("args", Map.of("email", EMAIL, "limit", 2));
+                decision.put("response", "Looking up your orders.");
+            }
+            return decision;
+        }
+
+        @Override
+        public EnvLookupOutput getWorkflowEnvVars(EnvLookupInput input) {
+            return new EnvLookupOutput(false, false);
+        }
+
+        @Override
+        public Map<String, Object> runTool(String toolName, Map<String, Object> args) {
+            return toolRegistry.execute(toolName, args);
+        }
+
+        @Override
+        public Map<String, Object> mcpToolActivity(String toolName, Map<String, Object> args) {
+            return Map.of();
+        }
+
+        @Override
+        public Map<String, Object> listMcpTools(McpServerDefinition definition, List<String> includedTools) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.temporal.agent.workflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.temporal.agent.activities.ToolActivities;
+import io.temporal.agent.goals.GoalRegistry;
+import io.temporal.agent.model.tools.AgentGoal;
+import io.temporal.agent.model.tools.GoalReference;
+import io.temporal.agent.model.tools.McpServerDefinition;
+import io.temporal.agent.model.tools.ToolExecutionMode;
+import io.temporal.agent.model.workflow.AgentGoalWorkflowParams;
+import io.temporal.agent.model.workflow.CombinedInput;
+import io.temporal.agent.model.workflow.ConversationOutcome;
+import io.temporal.agent.model.workflow.EnvLookupInput;
+import io.temporal.agent.model.workflow.EnvLookupOutput;
+import io.temporal.agent.model.workflow.NextStep;
+import io.temporal.agent.model.workflow.ToolPromptInput;
+import io.temporal.agent.model.workflow.ValidationInput;
+import io.temporal.agent.model.workflow.ValidationResult;
+import io.temporal.agent.tools.EcommerceToolsConfiguration;
+import io.temporal.agent.tools.ToolRegistry;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares a full tool turn (prompt, planner, tool run, completion) with the tool dispatched as a regular activity
+ * versus a local activity. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class ToolTurnBenchmarkTest {
+
+    private static final String TASK_QUEUE = "agent-benchmark";
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    @Test
+    void localActivityToolTurnBeatsRemoteActivity() {
+        TurnStats remote = measure(ToolExecutionMode.ACTIVITY);
+        TurnStats local = measure(ToolExecutionMode.LOCAL_ACTIVITY);
+
+        System.out.printf("tool turn ACTIVITY:       p50=%.2fms p95=%.2fms history=%d events%n",
+                remote.p50Millis(), remote.p95Millis(), remote.historyEvents());
+        System.out.printf("tool turn LOCAL_ACTIVITY: p50=%.2fms p95=%.2fms history=%d events%n",
+                local.p50Millis(), local.p95Millis(), local.historyEvents());
+
+        assertThat(local.historyEvents()).isLessThan(remote.historyEvents());
+    }
+
+    private TurnStats measure(ToolExecutionMode mode) {
+        ToolRegistry toolRegistry = new ToolRegistry();
+        new EcommerceToolsConfiguration(toolRegistry);
+        AgentGoal goal = new GoalRegistry(toolRegistry).findGoal("goal_ecomm_order_status");
+        goal.getTools().forEach(tool -> tool.setExecutionMode(mode));
+
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance()) {
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(AgentGoalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(new ScriptedActivities(toolRegistry));
+            environment.start();
+            WorkflowClient client = environment.getWorkflowClient();
+
+            long[] samples = new long[ITERATIONS];
+            int historyEvents = 0;
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                AgentGoalWorkflow workflow = client.newWorkflowStub(AgentGoalWorkflow.class,
+                        WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+                WorkflowClient.start(workflow::run, new CombinedInput(new AgentGoalWorkflowParams(), goal));
+                WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+
+                long start = System.nanoTime();
+                workflow.submitUserPrompt("Where is order 102?");
+                stub.getResult(ConversationOutcome.class);
+                long elapsed = System.nanoTime() - start;
+
+                if (i >= WARMUP) {
+                    samples[i - WARMUP] = elapsed;
+                    historyEvents = client.fetchHistory(stub.getExecution().getWorkflowId()).getEvents().size();
+                }
+            }
+            Arrays.sort(samples);
+            return new TurnStats(samples[ITERATIONS / 2] / 1_000_000.0,
+                    samples[(int) (ITERATIONS * 0.95)] / 1_000_000.0, historyEvents);
+        }
+    }
+
+    private record TurnStats(double p50Millis, double p95Millis, int historyEvents) {
+    }
+
+    /** Planner that asks for GetOrder on the user turn and finishes once the tool result comes back. */
+    private static final class ScriptedActivities implements ToolActivities {
+
+        private final ToolRegistry toolRegistry;
+
+        private ScriptedActivities(ToolRegistry toolRegistry) {
+            this.toolRegistry = toolRegistry;
+        }
+
+        @Override
+        public AgentGoal resolveGoal(GoalReference reference) {
+            throw new UnsupportedOperationException("Goals are passed inline");
+        }
+
+        @Override
+        public ValidationResult agentValidatePrompt(ValidationInput input) {
+            return new ValidationResult(true, Map.of());
+        }
+
+        @Override
+        public Map<String, Object> agentToolPlanner(ToolPromptInput input) {
+            Map<String, Object> decision = new HashMap<>();
+            if (input.getPrompt().startsWith("### The 'GetOrder' tool completed")) {
+                decision.put("next", NextStep.DONE.getJsonValue());
+                decision.put("response", "Order 102 has shipped.");
+            } else if (input.getPrompt().startsWith("###")) {
+                decision.put("next", NextStep.QUESTION.getJsonValue());
+                decision.put("response", "Which order should I check?");
+            } else {
+                decision.put("next", NextStep.CONFIRM.getJsonValue());
+                decision.put("tool", "GetOrder");
+                decision.put("args", Map.of("order_id", "102"));
+                decision.put("response", "Looking up order 102.");
+            }
+            return decision;
+        }
+
+        @Override
+        public EnvLookupOutput getWorkflowEnvVars(EnvLookupInput input) {
+            return new EnvLookupOutput(false, false);
+        }
+
+        @Override
+        public Map<String, Object> runTool(String toolName, Map<String, Object> args) {
+            return toolRegistry.execute(toolName, args);
+        }
+
+        @Override
+        public Map<String, Object> mcpToolActivity(String toolName, Map<String, Object> args) {
+            return Map.of();
+        }
+
+        @Override
+        public Map<String, Object> listMcpTools(McpServerDefinition definition, List<String> includedTools) {
+            return Map.of();
+        }
+    }
+}